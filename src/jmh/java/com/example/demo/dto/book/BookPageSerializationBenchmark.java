@@ -0,0 +1,61 @@
+package com.example.demo.dto.book;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookPageSerializationBenchmark {
+    @Param({"20", "100"})
+    private int pageSize;
+    private ObjectMapper objectMapper;
+    private Page<BookDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<BookDto> books = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            BookDto book = new BookDto();
+            book.setId(id);
+            book.setTitle("Title " + id);
+            book.setAuthor("Author " + id);
+            book.setIsbn("978-0-00-000000-" + id);
+            book.setPrice(BigDecimal.valueOf(1999, 2));
+            book.setDescription("Description of book " + id);
+            book.setCoverImage("https://example.com/covers/" + id + ".jpg");
+            book.setCategoryIds(Set.of(1L, 2L, 3L));
+            books.add(book);
+        }
+        page = new PageImpl<>(books, PageRequest.of(0, pageSize), 10000);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
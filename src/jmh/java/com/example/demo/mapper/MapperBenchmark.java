@@ -0,0 +1,108 @@
+package com.example.demo.mapper;
+
+import com.example.demo.dto.book.BookDto;
+import com.example.demo.dto.order.OrderResponseDto;
+import com.example.demo.dto.shoppingcart.ShoppingCartResponseDto;
+import com.example.demo.mapper.impl.BookMapperImpl;
+import com.example.demo.mapper.impl.CartItemMapperImpl;
+import com.example.demo.mapper.impl.OrderItemMapperImpl;
+import com.example.demo.mapper.impl.OrderMapperImpl;
+import com.example.demo.mapper.impl.ShoppingCartMapperImpl;
+import com.example.demo.model.Book;
+import com.example.demo.model.CartItem;
+import com.example.demo.model.Category;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.ShoppingCart;
+import com.example.demo.model.User;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+    @Param({"1", "10"})
+    private int items;
+    private BookMapper bookMapper;
+    private OrderMapper orderMapper;
+    private ShoppingCartMapper shoppingCartMapper;
+    private Book book;
+    private Order order;
+    private ShoppingCart shoppingCart;
+
+    @Setup
+    public void setUp() {
+        bookMapper = new BookMapperImpl();
+        orderMapper = new OrderMapperImpl(new OrderItemMapperImpl());
+        shoppingCartMapper = new ShoppingCartMapperImpl(new CartItemMapperImpl());
+        User user = new User();
+        user.setId(1L);
+        book = book(1L);
+        order = new Order();
+        order.setId(1L);
+        order.setUser(user);
+        order.setTotalPrice(BigDecimal.ZERO);
+        shoppingCart = new ShoppingCart();
+        shoppingCart.setId(1L);
+        shoppingCart.setUser(user);
+        for (long i = 1; i <= items; i++) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setId(i);
+            orderItem.setOrder(order);
+            orderItem.setBook(book(i));
+            orderItem.setQuantity(2);
+            orderItem.setPrice(orderItem.getBook().getPrice());
+            order.getOrderItems().add(orderItem);
+            CartItem cartItem = new CartItem();
+            cartItem.setId(i);
+            cartItem.setShoppingCart(shoppingCart);
+            cartItem.setBook(orderItem.getBook());
+            cartItem.setQuantity(2);
+            shoppingCart.getCartItems().add(cartItem);
+        }
+    }
+
+    @Benchmark
+    public BookDto bookToDto() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public OrderResponseDto orderToDto() {
+        return orderMapper.toDto(order);
+    }
+
+    @Benchmark
+    public ShoppingCartResponseDto shoppingCartToDto() {
+        return shoppingCartMapper.toDto(shoppingCart);
+    }
+
+    private static Book book(long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Title " + id);
+        book.setAuthor("Author " + id);
+        book.setIsbn("978-0-00-000000-" + id);
+        book.setPrice(BigDecimal.valueOf(1999, 2));
+        book.setDescription("Description " + id);
+        for (long categoryId = 1; categoryId <= 3; categoryId++) {
+            book.getCategories().add(new Category(categoryId));
+        }
+        return book;
+    }
+}
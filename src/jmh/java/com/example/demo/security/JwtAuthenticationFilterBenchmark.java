@@ -0,0 +1,98 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * Runs a bearer-token request through the filter with an in-memory user lookup.
+ * Each call presents the next token of a precomputed draw: with probability
+ * {@code hitRate} one of a hot set that fits in the claims cache, otherwise a token
+ * not presented for a long while, which misses and verifies the signature again.
+ * 0.95 is about what a production cache sees; 1 and 0 are the bounds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtAuthenticationFilterBenchmark {
+    private static final int CACHE_SIZE = 1000;
+    private static final int HOT_TOKENS = CACHE_SIZE / 2;
+    private static final int DRAWS = 1 << 17;
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+    @Param({"1.0", "0.95", "0.0"})
+    private double hitRate;
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest[] requests;
+    private MockHttpServletResponse response;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = JwtUtilBenchmark.jwtUtil(CACHE_SIZE);
+        UserDetails user = User.withUsername("bob@example.com")
+                .password("password")
+                .roles("USER")
+                .build();
+        UserDetailsService userDetailsService = username -> user;
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService,
+                new SimpleMeterRegistry());
+        SplittableRandom random = new SplittableRandom(42);
+        List<MockHttpServletRequest> hot = new ArrayList<>(HOT_TOKENS);
+        for (int i = 0; i < HOT_TOKENS; i++) {
+            hot.add(request(jwtUtil, "hot" + i));
+        }
+        requests = new MockHttpServletRequest[DRAWS];
+        for (int i = 0; i < DRAWS; i++) {
+            // A cold token comes round again only after DRAWS calls, long evicted by then
+            requests[i] = random.nextDouble() < hitRate
+                    ? hot.get(random.nextInt(HOT_TOKENS))
+                    : request(jwtUtil, "cold" + i);
+        }
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void authenticate() throws ServletException, IOException {
+        MockHttpServletRequest request = requests[next];
+        next = next + 1 == requests.length ? 0 : next + 1;
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static MockHttpServletRequest request(JwtUtil jwtUtil, String user) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books");
+        request.addHeader(HttpHeaders.AUTHORIZATION,
+                "Bearer " + jwtUtil.generateToken(user + "@example.com"));
+        return request;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.security;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+    static final String SECRET = "super-Duper-secret-phrase12345678AFGSMGMateAcademy";
+    static final long EXPIRATION = 900000L;
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = jwtUtil(10000);
+        token = jwtUtil.generateToken("bob@example.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("bob@example.com");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    static JwtUtil jwtUtil(long cacheMaxSize) {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, cacheMaxSize);
+        Field expiration = ReflectionUtils.findField(JwtUtil.class, "expiration");
+        ReflectionUtils.makeAccessible(expiration);
+        ReflectionUtils.setField(expiration, jwtUtil, EXPIRATION);
+        return jwtUtil;
+    }
+}
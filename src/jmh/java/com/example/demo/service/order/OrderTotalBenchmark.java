@@ -0,0 +1,68 @@
+package com.example.demo.service.order;
+
+import com.example.demo.model.OrderItem;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times OrderServiceImpl's private order total calculation through a method handle,
+ * which the JIT inlines like a direct call. The service's collaborators aren't used
+ * by the calculation and are left out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderTotalBenchmark {
+    private static final MethodHandle CALCULATE_ORDER_TOTAL_PRICE = calculateOrderTotalPrice();
+    private static final OrderServiceImpl ORDER_SERVICE = new OrderServiceImpl(null, null,
+            null, null, null, null, null, null);
+    @Param({"1", "10", "100"})
+    private int items;
+    private Set<OrderItem> orderItems;
+
+    @Setup
+    public void setUp() {
+        orderItems = new HashSet<>();
+        for (int i = 0; i < items; i++) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setId(i);
+            orderItem.setQuantity(i % 3 + 1);
+            orderItem.setPrice(BigDecimal.valueOf(999 + i * 100L, 2));
+            orderItems.add(orderItem);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculateOrderTotalPrice() throws Throwable {
+        return (BigDecimal) CALCULATE_ORDER_TOTAL_PRICE.invokeExact(ORDER_SERVICE, orderItems);
+    }
+
+    private static MethodHandle calculateOrderTotalPrice() {
+        try {
+            return MethodHandles.privateLookupIn(OrderServiceImpl.class, MethodHandles.lookup())
+                    .findVirtual(OrderServiceImpl.class, "calculateOrderTotalPrice",
+                            MethodType.methodType(BigDecimal.class, Set.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
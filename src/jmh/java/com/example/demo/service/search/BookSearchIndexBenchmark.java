@@ -0,0 +1,127 @@
+package com.example.demo.service.search;
+
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.book.BookSearchView;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Searches an index of synthetic books built through {@link BookSearchIndex#rebuild()}
+ * from a repository stub. Words are drawn log-uniformly from the vocabulary, so
+ * {@code w0} is in about four of five books and {@code w40000} in a few hundred;
+ * sampling mode reports the p99 of a search.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BookSearchIndexBenchmark {
+    private static final int VOCABULARY = 50_000;
+    private static final int AUTHORS = 20_000;
+    private static final int TITLE_WORDS = 4;
+    private static final int DESCRIPTION_WORDS = 20;
+    @Param("1000000")
+    private int books;
+    @Param({"w0", "w0 w1", "w0 w40000", "w40000", "isbn"})
+    private String query;
+    private BookSearchIndex index;
+    private String searchQuery;
+
+    @Setup
+    public void setUp() {
+        index = new BookSearchIndex(repository(books));
+        index.rebuild();
+        searchQuery = "isbn".equals(query) ? isbn(books / 2) : query;
+    }
+
+    @Benchmark
+    public BookSearchIndex.SearchHits search() {
+        return index.search(searchQuery, 0, 20);
+    }
+
+    private static BookRepository repository(int books) {
+        return (BookRepository) Proxy.newProxyInstance(BookRepository.class.getClassLoader(),
+                new Class<?>[] {BookRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findSearchViewsAfter")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    long afterId = (Long) args[0];
+                    int batchSize = ((Pageable) args[1]).getPageSize();
+                    List<BookSearchView> batch = new ArrayList<>(batchSize);
+                    for (long id = afterId + 1; id <= books && batch.size() < batchSize; id++) {
+                        batch.add(new SyntheticBook(id));
+                    }
+                    return batch;
+                });
+    }
+
+    private static String isbn(long id) {
+        return String.format("978%010d", id);
+    }
+
+    private static String words(SplittableRandom random, int count) {
+        StringJoiner words = new StringJoiner(" ");
+        for (int i = 0; i < count; i++) {
+            words.add("w" + ((int) Math.pow(VOCABULARY, random.nextDouble()) - 1));
+        }
+        return words.toString();
+    }
+
+    private static final class SyntheticBook implements BookSearchView {
+        private final Long id;
+        private final String title;
+        private final String author;
+        private final String description;
+
+        private SyntheticBook(long id) {
+            SplittableRandom random = new SplittableRandom(id);
+            this.id = id;
+            this.title = words(random, TITLE_WORDS);
+            this.author = "author" + random.nextInt(AUTHORS);
+            this.description = words(random, DESCRIPTION_WORDS);
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+
+        @Override
+        public String getAuthor() {
+            return author;
+        }
+
+        @Override
+        public String getIsbn() {
+            return isbn(id);
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@EnableCaching
+@Configuration
+public class CacheConfig {
+    public static final String PRINCIPALS = "principals";
+    public static final String BOOKS = "books";
+    public static final String BOOK_PAGES = "bookPages";
+    public static final String CARTS = "carts";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${cache.principals.spec}") String principalsSpec,
+            @Value("${cache.books.spec}") String booksSpec,
+            @Value("${cache.book-pages.spec}") String bookPagesSpec,
+            @Value("${cache.carts.spec}") String cartsSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PRINCIPALS, Caffeine.from(principalsSpec).build());
+        cacheManager.registerCustomCache(BOOKS, Caffeine.from(booksSpec).build());
+        cacheManager.registerCustomCache(BOOK_PAGES, Caffeine.from(bookPagesSpec).build());
+        cacheManager.registerCustomCache(CARTS, Caffeine.from(cartsSpec).build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections
+ * everywhere else. The decision is made when a connection is first needed, so this
+ * data source must sit behind a lazy connection proxy for the transaction's read-only
+ * flag to be known by then.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+    private final List<HikariDataSource> replicas;
+    private final Balancing balancing;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    Balancing balancing) {
+        this.replicas = List.copyOf(replicas);
+        this.balancing = balancing;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs a read on the primary even inside a read-only transaction, for reads that
+     * must see the latest commit, such as ones whose result is cached. Has no effect
+     * when the transaction already holds a replica connection.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY_READS.set(previous);
+        }
+    }
+
+    /**
+     * Like {@link #onPrimary(Supplier)}, for reads that hand their results on instead
+     * of returning them.
+     */
+    public static void runOnPrimary(Runnable read) {
+        onPrimary(() -> {
+            read.run();
+            return null;
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (Boolean.TRUE.equals(PRIMARY_READS.get())
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return balancing == Balancing.LEAST_CONNECTIONS
+                ? leastBusyReplica()
+                : Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    private int leastBusyReplica() {
+        int leastBusy = 0;
+        int leastConnections = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariPoolMXBean pool = replicas.get(i).getHikariPoolMXBean();
+            int connections = pool == null
+                    ? 0
+                    : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+            if (connections < leastConnections) {
+                leastBusy = i;
+                leastConnections = connections;
+            }
+        }
+        return leastBusy;
+    }
+
+    public enum Balancing {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS
+    }
+}
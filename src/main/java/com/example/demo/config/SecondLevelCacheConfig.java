@@ -0,0 +1,65 @@
+package com.example.demo.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Caffeine-backed JCache regions for Hibernate's second-level and query caches.
+ * Each region is sized and expired through {@code cache.l2.<region>.max-size} and
+ * {@code cache.l2.<region>.ttl}; Hibernate is set to fail on any region not created here.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    public static final String CATEGORY = "category";
+    public static final String ROLE = "role";
+    public static final String BOOK = "book";
+    public static final String BOOK_CATEGORIES = "book.categories";
+    public static final String USER_ROLES = "user.roles";
+    private static final List<String> REGIONS = List.of(CATEGORY, ROLE, BOOK, BOOK_CATEGORIES,
+            USER_ROLES, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CachingProvider provider = Caching.getCachingProvider(
+                CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(),
+                getClass().getClassLoader());
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = configuration();
+            configuration.setMaximumSize(OptionalLong.of(environment.getRequiredProperty(
+                    "cache.l2." + region + ".max-size", Long.class)));
+            configuration.setExpireAfterWrite(OptionalLong.of(environment.getRequiredProperty(
+                    "cache.l2." + region + ".ttl", Duration.class).toNanos()));
+            cacheManager.createCache(region, configuration);
+        }
+        // Update timestamps must outlive every cached query result, so they never expire
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuration());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+            CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER,
+                hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -31,8 +31,11 @@ public class SecurityConfig {
                         auth -> auth
                                 .requestMatchers("/auth/**",
                                         "/swagger-ui/**",
-                                        "/v3/api/docs/**")
+                                        "/v3/api/docs/**",
+                                        "/actuator/health")
                                 .permitAll()
+                                .requestMatchers("/actuator/**")
+                                .hasRole("ADMIN")
                                 .anyRequest()
                                 .authenticated()
                 )
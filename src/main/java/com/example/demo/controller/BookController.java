@@ -1,15 +1,31 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.book.BookDto;
+import com.example.demo.dto.book.BookFilterDto;
+import com.example.demo.dto.book.BookImportReportDto;
+import com.example.demo.dto.book.BookStockDto;
 import com.example.demo.dto.book.CreateBookRequestDto;
+import com.example.demo.dto.book.UpdateBookStockRequestDto;
+import com.example.demo.dto.page.CursorPageDto;
+import com.example.demo.repository.ResourceVersion;
 import com.example.demo.service.BookService;
+import com.example.demo.service.book.BookExportService;
+import com.example.demo.service.book.BookImportService;
+import com.example.demo.service.inventory.InventoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,9 +33,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RequiredArgsConstructor
 @RestController
@@ -27,18 +47,77 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Book management", description = "Endpoints for managing books")
 public class BookController {
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
+    private final InventoryService inventoryService;
 
     @GetMapping
-    @Operation(summary = "Get all books", description = "Get list of all books")
+    @Operation(summary = "Get all books",
+            description = "Get list of all books, optionally filtered by category, "
+                    + "author and price range together with facet counts")
     @PreAuthorize("hasAnyRole('ROLE_USER')")
-    public Page<BookDto> findAll(Pageable pageable) {
-        return bookService.findAll(pageable);
+    public Page<BookDto> findAll(BookFilterDto filter, Pageable pageable, WebRequest request) {
+        ResourceVersion version = bookService.getVersion();
+        if (request.checkNotModified(ETags.weak(version),
+                ETags.lastModified(version.lastModified()))) {
+            return null;
+        }
+        if (filter.isEmpty()) {
+            return bookService.findAll(pageable);
+        }
+        return bookService.filter(filter, pageable);
+    }
+
+    @GetMapping(params = "after")
+    @Operation(summary = "Scroll books",
+            description = "Get books after the given cursor, without counting all books")
+    @PreAuthorize("hasAnyRole('ROLE_USER')")
+    public CursorPageDto<BookDto> findAll(@RequestParam(required = false) String after,
+                                          Pageable pageable) {
+        return bookService.findAll(after, pageable);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search books",
+            description = "Full-text search by title, author, isbn and description")
+    @PreAuthorize("hasAnyRole('ROLE_USER')")
+    public Page<BookDto> search(@RequestParam("q") String query, Pageable pageable) {
+        return bookService.search(query, pageable);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export books as NDJSON",
+            description = "Stream every book as newline-delimited JSON, "
+                    + "gzip-compressed when the client accepts it")
+    @PreAuthorize("hasAnyRole('ROLE_USER')")
+    public ResponseEntity<StreamingResponseBody> exportNdjson(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding) {
+        return export(MediaType.parseMediaType("application/x-ndjson"), acceptEncoding,
+                bookExportService::exportNdjson);
+    }
+
+    @GetMapping(value = "/export", params = "format=csv")
+    @Operation(summary = "Export books as CSV",
+            description = "Stream every book as CSV with a header row, "
+                    + "gzip-compressed when the client accepts it")
+    @PreAuthorize("hasAnyRole('ROLE_USER')")
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding) {
+        return export(MediaType.parseMediaType("text/csv"), acceptEncoding,
+                bookExportService::exportCsv);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get book by id", description = "Get book by id")
     @PreAuthorize("hasAnyRole('ROLE_USER')")
-    public BookDto getBooksByID(@PathVariable Long id) {
+    public BookDto getBooksByID(@PathVariable Long id, WebRequest request) {
+        LocalDateTime lastModified = bookService.getLastModified(id);
+        if (request.checkNotModified(ETags.strong(id, lastModified),
+                ETags.lastModified(lastModified))) {
+            return null;
+        }
         return bookService.findById(id);
     }
 
@@ -50,6 +129,24 @@ public class BookController {
         return bookService.save(bookDto);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Import books from CSV",
+            description = "Create or update books by isbn from a CSV feed with a header row; "
+                    + "categoryIds are separated by ';'. Returns a per-row error report")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public BookImportReportDto importCsv(InputStream csv) {
+        return bookImportService.importCsv(csv);
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @Operation(summary = "Import books from NDJSON",
+            description = "Create or update books by isbn from newline-delimited JSON, "
+                    + "one book per line. Returns a per-row error report")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public BookImportReportDto importNdjson(InputStream ndjson) {
+        return bookImportService.importNdjson(ndjson);
+    }
+
     @DeleteMapping
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "Delete book by id", description = "Delete book by id")
@@ -64,4 +161,37 @@ public class BookController {
     public BookDto update(@PathVariable Long id, @RequestBody @Valid CreateBookRequestDto bookDto) {
         return bookService.update(id, bookDto);
     }
+
+    @GetMapping("/{id}/stock")
+    @Operation(summary = "Get book stock", description = "Get stock left of a book")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public BookStockDto getStock(@PathVariable Long id) {
+        return inventoryService.getStock(id);
+    }
+
+    @PutMapping("/{id}/stock")
+    @Operation(summary = "Update book stock", description = "Set stock left of a book")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public BookStockDto updateStock(@PathVariable Long id,
+                                    @RequestBody @Valid UpdateBookStockRequestDto stockDto) {
+        return inventoryService.updateStock(id, stockDto.stock());
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(MediaType mediaType,
+                                                         String acceptEncoding,
+                                                         StreamingResponseBody export) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(export);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(outputStream -> {
+                    try (OutputStream compressed = new GZIPOutputStream(outputStream)) {
+                        export.writeTo(compressed);
+                    }
+                });
+    }
 }
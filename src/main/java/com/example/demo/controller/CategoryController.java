@@ -1,10 +1,15 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.book.BookDtoWithoutCategoryIds;
 import com.example.demo.dto.category.CategoryDto;
 import com.example.demo.dto.category.CreateCategoryRequestDto;
+import com.example.demo.dto.page.CursorPageDto;
+import com.example.demo.repository.ResourceVersion;
+import com.example.demo.service.BookService;
 import com.example.demo.service.category.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,31 +22,68 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RequestMapping("/categories")
 @RequiredArgsConstructor
 @RestController
 public class CategoryController {
     private final CategoryService categoryService;
+    private final BookService bookService;
 
     @Operation(summary = "Find all categories",
                 description = "Return list of categories as page")
     @GetMapping
     @PreAuthorize("hasAnyRole('ROLE_USER')")
-    public Page<CategoryDto> getAll(Pageable pageable) {
+    public Page<CategoryDto> getAll(Pageable pageable, WebRequest request) {
+        ResourceVersion version = categoryService.getVersion();
+        if (request.checkNotModified(ETags.weak(version),
+                ETags.lastModified(version.lastModified()))) {
+            return null;
+        }
         return categoryService.getAll(pageable);
     }
 
+    @Operation(summary = "Scroll categories",
+                description = "Return categories after the given cursor, without counting them")
+    @GetMapping(params = "after")
+    @PreAuthorize("hasAnyRole('ROLE_USER')")
+    public CursorPageDto<CategoryDto> getAll(@RequestParam(required = false) String after,
+                                             Pageable pageable) {
+        return categoryService.getAll(after, pageable);
+    }
+
     @Operation(summary = "Find category by id",
                 description = "Return category with specified id")
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ROLE_USER')")
-    public CategoryDto getCategoryById(@PathVariable Long id) {
+    public CategoryDto getCategoryById(@PathVariable Long id, WebRequest request) {
+        LocalDateTime lastModified = categoryService.getLastModified(id);
+        if (request.checkNotModified(ETags.strong(id, lastModified),
+                ETags.lastModified(lastModified))) {
+            return null;
+        }
         return categoryService.getById(id);
     }
 
+    @Operation(summary = "Find books by category id",
+                description = "Return page of books in the category with specified id")
+    @GetMapping("/{id}/books")
+    @PreAuthorize("hasAnyRole('ROLE_USER')")
+    public Page<BookDtoWithoutCategoryIds> getBooksByCategoryId(@PathVariable Long id,
+                                                                Pageable pageable,
+                                                                WebRequest request) {
+        ResourceVersion version = bookService.getVersion();
+        if (request.checkNotModified(ETags.weak(version),
+                ETags.lastModified(version.lastModified()))) {
+            return null;
+        }
+        return bookService.findAllByCategoryId(id, pageable);
+    }
+
     @Operation(summary = "Create category",
                 description = "Create category")
     @PostMapping
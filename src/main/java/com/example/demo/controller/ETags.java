@@ -0,0 +1,34 @@
+package com.example.demo.controller;
+
+import com.example.demo.repository.ResourceVersion;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Validators for conditional GETs: strong ETags for single resources, weak ETags
+ * for pages whose exact bytes depend on more than the table version.
+ */
+final class ETags {
+    private ETags() {
+    }
+
+    static String strong(Long id, LocalDateTime updatedAt) {
+        return "\"" + id + "-" + micros(updatedAt) + "\"";
+    }
+
+    static String weak(ResourceVersion version) {
+        return "W/\"" + version.count() + "-" + micros(version.lastModified()) + "\"";
+    }
+
+    static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt == null ? -1
+                : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long micros(LocalDateTime updatedAt) {
+        return updatedAt == null ? 0
+                : ChronoUnit.MICROS.between(LocalDate.EPOCH.atStartOfDay(), updatedAt);
+    }
+}
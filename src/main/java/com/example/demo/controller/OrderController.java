@@ -1,17 +1,22 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.order.OrderFilterDto;
 import com.example.demo.dto.order.OrderItemsResponseDto;
 import com.example.demo.dto.order.OrderResponseDto;
 import com.example.demo.dto.order.PlaceOrderRequestDto;
 import com.example.demo.dto.order.UpdateOrderStatusRequestDto;
-import com.example.demo.model.User;
+import com.example.demo.dto.page.CursorPageDto;
 import com.example.demo.service.order.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -22,8 +27,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Order Controller", description = "API for managing user orders, "
         + "including placing orders, retrieving orders, and updating order status.")
@@ -32,7 +39,9 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
+    private static final String NDJSON = "application/x-ndjson";
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Place a new order",
             description = "Allows an authenticated user "
@@ -44,18 +53,34 @@ public class OrderController {
                                        @RequestBody
                                        @Valid
                                        PlaceOrderRequestDto requestDto) {
-        User user = (User) authentication.getPrincipal();
-        return orderService.placeOrder(user, requestDto);
+        Long userId = Principals.userId(authentication);
+        return orderService.placeOrder(userId, requestDto);
     }
 
     @Operation(summary = "Retrieve all orders",
-            description = "Returns a list of all "
-                    + "orders placed by the authenticated user."
+            description = "Returns orders placed by the authenticated user, newest first, "
+                    + "one page after the given cursor, optionally filtered by date and status."
     )
     @GetMapping
-    public List<OrderResponseDto> getAllOrders(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        return orderService.getAllOrders(user);
+    public CursorPageDto<OrderResponseDto> getAllOrders(Authentication authentication,
+                                                        OrderFilterDto filter,
+                                                        @RequestParam(required = false)
+                                                        String after,
+                                                        Pageable pageable) {
+        Long userId = Principals.userId(authentication);
+        return orderService.getAllOrders(userId, filter, after, pageable);
+    }
+
+    @Operation(summary = "Stream all orders",
+            description = "Streams every order of the authenticated user as "
+                    + "newline-delimited JSON, optionally filtered by date and status."
+    )
+    @GetMapping(produces = NDJSON)
+    public StreamingResponseBody streamAllOrders(Authentication authentication,
+                                                 OrderFilterDto filter) {
+        Long userId = Principals.userId(authentication);
+        return outputStream -> orderService.streamOrders(userId, filter,
+                order -> writeLine(outputStream, order));
     }
 
     @Operation(summary = "Find order by ID",
@@ -67,8 +92,8 @@ public class OrderController {
                                           @PathVariable
                                           @Positive
                                           Long orderId) {
-        User user = (User) authentication.getPrincipal();
-        return orderService.findOrderById(orderId, user);
+        Long userId = Principals.userId(authentication);
+        return orderService.findOrderById(orderId, userId);
     }
 
     @Operation(summary = "Find order item by ID and order ID",
@@ -82,8 +107,8 @@ public class OrderController {
                                                              Long orderId,
                                                              @Positive
                                                              @PathVariable Long itemId) {
-        User user = (User) authentication.getPrincipal();
-        return orderService.findOrderItemByIdAndOrderId(orderId, itemId, user);
+        Long userId = Principals.userId(authentication);
+        return orderService.findOrderItemByIdAndOrderId(orderId, itemId, userId);
     }
 
     @Operation(summary = "Update order status",
@@ -99,4 +124,13 @@ public class OrderController {
                                               UpdateOrderStatusRequestDto requestDto) {
         return orderService.updateOrderStatus(id, requestDto);
     }
+
+    private void writeLine(OutputStream outputStream, OrderResponseDto order) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(order));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
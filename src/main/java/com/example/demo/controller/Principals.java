@@ -0,0 +1,21 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.User;
+import com.example.demo.security.JwtPrincipal;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Resolves the user a request acts for, whether it was authenticated with the user
+ * entity or, in stateless mode, with the claims of its token.
+ */
+final class Principals {
+    private Principals() {
+    }
+
+    static Long userId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.id();
+        }
+        return ((User) authentication.getPrincipal()).getId();
+    }
+}
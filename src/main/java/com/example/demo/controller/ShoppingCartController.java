@@ -1,9 +1,9 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.cartitem.CartItemRequestDto;
+import com.example.demo.dto.cartitem.CartItemResponseDto;
 import com.example.demo.dto.cartitem.UpdateCartItemRequestDto;
 import com.example.demo.dto.shoppingcart.ShoppingCartResponseDto;
-import com.example.demo.model.User;
 import com.example.demo.service.shoppingcart.ShoppingCartService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -32,19 +32,31 @@ public class ShoppingCartController {
                     + " retrieving the shopping cart of an authenticated user.")
     @GetMapping
     public ShoppingCartResponseDto getShoppingCart(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        return shoppingCartService.getShoppingCart(user);
+        Long userId = Principals.userId(authentication);
+        return shoppingCartService.getShoppingCart(userId);
     }
 
     @Operation(summary = "Add a book to the shopping cart",
-            description = "This method allows adding a book to the user's shopping cart. "
-                    + "The user must be authenticated.")
+            description = "This method allows adding a book to the user's shopping cart "
+                    + "and returns the changed item. The user must be authenticated.")
     @PostMapping
-    public ShoppingCartResponseDto addBookToShoppingCart(Authentication authentication,
-                                                         @RequestBody @Valid
-                                                         CartItemRequestDto cartItem) {
-        User user = (User) authentication.getPrincipal();
-        return shoppingCartService.addBookToShoppingCart(user, cartItem);
+    public CartItemResponseDto addBookToShoppingCart(Authentication authentication,
+                                                     @RequestBody @Valid
+                                                     CartItemRequestDto cartItem) {
+        Long userId = Principals.userId(authentication);
+        return shoppingCartService.addBookToShoppingCart(userId, cartItem);
+    }
+
+    @Operation(summary = "Add a book to the shopping cart and return the cart",
+            description = "Same as adding a book, but responds with the whole shopping cart. "
+                    + "Selected with the view=full parameter.")
+    @PostMapping(params = "view=full")
+    public ShoppingCartResponseDto addBookToShoppingCartAndGetCart(
+            Authentication authentication,
+            @RequestBody @Valid CartItemRequestDto cartItem) {
+        Long userId = Principals.userId(authentication);
+        shoppingCartService.addBookToShoppingCart(userId, cartItem);
+        return shoppingCartService.getShoppingCart(userId);
     }
 
     @Operation(summary = "Update an item in the shopping cart",
@@ -58,8 +70,8 @@ public class ShoppingCartController {
                                                   @RequestBody
                                                   @Valid
                                                   UpdateCartItemRequestDto cartItem) {
-        User user = (User) authentication.getPrincipal();
-        return shoppingCartService.updateShoppingCart(cartItemId, user, cartItem);
+        Long userId = Principals.userId(authentication);
+        return shoppingCartService.updateShoppingCart(cartItemId, userId, cartItem);
     }
 
     @Operation(summary = "Remove an item from the shopping cart",
@@ -69,7 +81,7 @@ public class ShoppingCartController {
                                                   @PathVariable
                                                   @Positive
                                                   Long cartItemId) {
-        User user = (User) authentication.getPrincipal();
-        return shoppingCartService.removeItemFromShoppingCart(user, cartItemId);
+        Long userId = Principals.userId(authentication);
+        return shoppingCartService.removeItemFromShoppingCart(userId, cartItemId);
     }
 }
@@ -0,0 +1,10 @@
+package com.example.demo.dto.book;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record BookFacetsDto(Map<Long, Long> categories,
+                            Map<String, Long> authors,
+                            BigDecimal minPrice,
+                            BigDecimal maxPrice) {
+}
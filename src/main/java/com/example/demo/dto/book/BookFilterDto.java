@@ -0,0 +1,12 @@
+package com.example.demo.dto.book;
+
+import java.math.BigDecimal;
+
+public record BookFilterDto(Long categoryId,
+                            String author,
+                            BigDecimal minPrice,
+                            BigDecimal maxPrice) {
+    public boolean isEmpty() {
+        return categoryId == null && author == null && minPrice == null && maxPrice == null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.dto.book;
+
+import java.util.List;
+
+public record BookImportErrorDto(long row,
+                                 String isbn,
+                                 List<String> messages) {
+}
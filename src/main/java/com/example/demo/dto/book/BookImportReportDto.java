@@ -0,0 +1,9 @@
+package com.example.demo.dto.book;
+
+import java.util.List;
+
+public record BookImportReportDto(long processed,
+                                  long imported,
+                                  long failed,
+                                  List<BookImportErrorDto> errors) {
+}
@@ -0,0 +1,5 @@
+package com.example.demo.dto.book;
+
+public record BookStockDto(Long bookId,
+                           int stock) {
+}
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
 import java.util.Set;
@@ -30,4 +31,10 @@ public class CreateBookRequestDto {
     private String coverImage;
     @NotEmpty
     private Set<Long> categoryIds;
+    /**
+     * Initial stock of a new book, 0 when not given. Ignored when updating a book; the
+     * stock endpoint sets it then. An import updates it only when given.
+     */
+    @PositiveOrZero(message = "stock can't be negative")
+    private Integer stock;
 }
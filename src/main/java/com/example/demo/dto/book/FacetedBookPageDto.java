@@ -0,0 +1,15 @@
+package com.example.demo.dto.book;
+
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+@Getter
+public class FacetedBookPageDto extends PageImpl<BookDto> {
+    private final BookFacetsDto facets;
+
+    public FacetedBookPageDto(Page<BookDto> page, BookFacetsDto facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+}
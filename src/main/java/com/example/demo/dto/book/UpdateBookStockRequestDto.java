@@ -0,0 +1,9 @@
+package com.example.demo.dto.book;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record UpdateBookStockRequestDto(@NotNull(message = "Please, set stock")
+                                        @Min(0)
+                                        Integer stock) {
+}
@@ -1,10 +1,14 @@
 package com.example.demo.dto.cartitem;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class CartItemResponseDto {
     private Long cartItemId;
     private Long bookId;
@@ -0,0 +1,12 @@
+package com.example.demo.dto.order;
+
+import com.example.demo.model.Order;
+import java.time.LocalDateTime;
+import org.springframework.format.annotation.DateTimeFormat;
+
+public record OrderFilterDto(@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                             LocalDateTime from,
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                             LocalDateTime to,
+                             Order.Status status) {
+}
@@ -0,0 +1,8 @@
+package com.example.demo.dto.page;
+
+import java.util.List;
+
+public record CursorPageDto<T>(List<T> content,
+                               int size,
+                               String nextCursor) {
+}
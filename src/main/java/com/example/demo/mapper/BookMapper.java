@@ -10,6 +10,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 @Mapper(config = MapperConfig.class)
@@ -18,6 +19,7 @@ public interface BookMapper {
 
     Book toModel(CreateBookRequestDto requestDto);
 
+    @Mapping(target = "stock", ignore = true)
     void updateModelFromDto(@MappingTarget Book book, CreateBookRequestDto bookDto);
 
     Book toEntity(CreateBookRequestDto bookDto);
@@ -1,8 +1,10 @@
 package com.example.demo.mapper;
 
 import com.example.demo.config.MapperConfig;
+import com.example.demo.dto.order.OrderItemsResponseDto;
 import com.example.demo.dto.order.OrderResponseDto;
 import com.example.demo.model.Order;
+import java.util.Set;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -11,4 +13,9 @@ import org.mapstruct.Mapping;
 public interface OrderMapper {
     @Mapping(target = "userId", source = "user.id")
     OrderResponseDto toDto(Order order);
+
+    default OrderResponseDto toDto(Order order, Set<OrderItemsResponseDto> orderItems) {
+        return new OrderResponseDto(order.getId(), order.getUser().getId(), orderItems,
+                order.getOrderDate(), order.getTotalPrice(), order.getStatus());
+    }
 }
@@ -1,5 +1,7 @@
 package com.example.demo.model;
 
+import com.example.demo.config.SecondLevelCacheConfig;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -10,18 +12,27 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
 @Getter
 @Setter
-@SQLDelete(sql = "UPDATE books SET is_deleted = true WHERE id = ?")
+@SQLDelete(sql = "UPDATE books SET is_deleted = true, "
+        + "updated_at = CURRENT_TIMESTAMP(6) WHERE id = ?")
 @SQLRestriction("is_deleted = false")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.BOOK)
 @Table(name = "books")
 public class Book {
     @Id
@@ -42,7 +53,23 @@ public class Book {
 
     private String description;
     private String coverImage;
+
+    /**
+     * Set when the book is created; afterwards only written by InventoryService's
+     * conditional updates, which bypass this entity and its cache entry, so read the
+     * current stock through BookRepository.findStockById.
+     */
+    @Column(nullable = false, updatable = false)
+    private int stock;
+
+    @UpdateTimestamp(source = SourceType.DB)
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
     @ManyToMany
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+            region = SecondLevelCacheConfig.BOOK_CATEGORIES)
     @JoinTable(
             name = "books_categories",
             joinColumns = @JoinColumn(name = "book_id"),
@@ -1,21 +1,31 @@
 package com.example.demo.model;
 
+import com.example.demo.config.SecondLevelCacheConfig;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import java.time.LocalDateTime;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
 @NoArgsConstructor
-@SQLDelete(sql = "UPDATE categories SET is_deleted = TRUE WHERE id = ?")
+@SQLDelete(sql = "UPDATE categories SET is_deleted = TRUE, "
+        + "updated_at = CURRENT_TIMESTAMP(6) WHERE id = ?")
 @SQLRestriction("is_deleted = FALSE")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.CATEGORY)
 @Getter
 @Setter
 @Table(name = "categories")
@@ -26,6 +36,9 @@ public class Category {
     @Column(nullable = false, unique = true)
     private String name;
     private String description;
+    @UpdateTimestamp(source = SourceType.DB)
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
 
     public Category(Long id) {
         this.id = id;
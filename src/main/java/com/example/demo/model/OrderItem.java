@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import java.math.BigDecimal;
 import lombok.Getter;
 import lombok.Setter;
@@ -19,7 +20,13 @@ import lombok.Setter;
 @Table(name = "order_items")
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_id_generator")
+    @TableGenerator(name = "order_item_id_generator",
+            table = "id_generators",
+            pkColumnName = "name",
+            valueColumnName = "next_val",
+            pkColumnValue = "order_items",
+            allocationSize = 50)
     private long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -1,5 +1,6 @@
 package com.example.demo.model;
 
+import com.example.demo.config.SecondLevelCacheConfig;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -14,6 +15,8 @@ import java.util.HashSet;
 import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 import org.springframework.security.core.GrantedAuthority;
@@ -45,6 +48,8 @@ public class User implements UserDetails {
     private String shippingAddress;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+            region = SecondLevelCacheConfig.USER_ROLES)
     @JoinTable(name = "users_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id"))
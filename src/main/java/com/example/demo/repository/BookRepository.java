@@ -1,7 +1,98 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.book.BookDtoWithoutCategoryIds;
 import com.example.demo.model.Book;
+import com.example.demo.repository.book.BookFacetRepository;
+import com.example.demo.repository.book.BookSearchView;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>,
+        JpaSpecificationExecutor<Book>, BookFacetRepository {
+    String SELECT_BOOK_VIEW = "SELECT new com.example.demo.dto.book.BookDtoWithoutCategoryIds("
+            + "b.id, b.title, b.author, b.isbn, b.price, b.description, b.coverImage) ";
+    String STOCK_SPACE = "books_stock";
+
+    @Query("SELECT b.id AS id, b.title AS title, b.author AS author, b.isbn AS isbn, "
+            + "b.description AS description FROM Book b "
+            + "WHERE b.id > :afterId ORDER BY b.id")
+    List<BookSearchView> findSearchViewsAfter(@Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(value = SELECT_BOOK_VIEW
+            + "FROM Book b JOIN b.categories c WHERE c.id = :categoryId",
+            countQuery = "SELECT COUNT(b) FROM Book b JOIN b.categories c "
+                    + "WHERE c.id = :categoryId")
+    Page<BookDtoWithoutCategoryIds> findAllByCategoryId(@Param("categoryId") Long categoryId,
+                                                        Pageable pageable);
+
+    @Query(SELECT_BOOK_VIEW + "FROM Book b WHERE b.id IN :ids ORDER BY b.id")
+    List<BookDtoWithoutCategoryIds> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Book b JOIN b.categories c "
+            + "WHERE c.id = :categoryId ORDER BY b.id")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT b.updatedAt FROM Book b WHERE b.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.example.demo.repository.ResourceVersion("
+            + "COUNT(b), MAX(b.updatedAt)) FROM Book b")
+    ResourceVersion findVersion();
+
+    @Query("SELECT b.stock FROM Book b WHERE b.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    /**
+     * Takes stock only if enough is left; returns 0 otherwise. updated_at is kept as is
+     * because stock is not part of the book representation. Stock is never read from
+     * cached books or cached queries, so the stock updates synchronize on a query space
+     * of their own instead of invalidating every cached book.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_SPACE))
+    @Query(value = "UPDATE books SET stock = stock - :quantity, updated_at = updated_at "
+            + "WHERE id = :id AND is_deleted = false AND stock >= :quantity",
+            nativeQuery = true)
+    int takeStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_SPACE))
+    @Query(value = "UPDATE books SET stock = stock + :quantity, updated_at = updated_at "
+            + "WHERE id = :id", nativeQuery = true)
+    int returnStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_SPACE))
+    @Query(value = "UPDATE books SET stock = :stock, updated_at = updated_at "
+            + "WHERE id = :id AND is_deleted = false", nativeQuery = true)
+    int updateStock(@Param("id") Long id, @Param("stock") int stock);
+
+    /**
+     * Synchronizes on the category links too, so Hibernate drops cached category
+     * collections along with the touched books when a category is removed.
+     */
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books_categories")})
+    @Query(value = "UPDATE books b JOIN books_categories bc ON bc.book_id = b.id "
+            + "SET b.updated_at = CURRENT_TIMESTAMP(6) WHERE bc.category_id = :categoryId",
+            nativeQuery = true)
+    int touchByCategoryId(@Param("categoryId") Long categoryId);
 }
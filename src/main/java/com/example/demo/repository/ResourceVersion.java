@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row count and latest modification time of a table, enough to tell whether
+ * any page of it can have changed.
+ */
+public record ResourceVersion(Long count, LocalDateTime lastModified) {
+}
@@ -0,0 +1,13 @@
+package com.example.demo.repository.book;
+
+import com.example.demo.model.Book;
+import java.util.Map;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface BookFacetRepository {
+    Map<Long, Long> countBooksByCategory(Specification<Book> specification);
+
+    Map<String, Long> countBooksByAuthor(Specification<Book> specification, int limit);
+
+    PriceRange findPriceRange(Specification<Book> specification);
+}
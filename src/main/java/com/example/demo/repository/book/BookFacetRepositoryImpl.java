@@ -0,0 +1,77 @@
+package com.example.demo.repository.book;
+
+import com.example.demo.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+@RequiredArgsConstructor
+public class BookFacetRepositoryImpl implements BookFacetRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public Map<Long, Long> countBooksByCategory(Specification<Book> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        Path<Long> categoryId = root.join("categories").get("id");
+        query.multiselect(categoryId, criteriaBuilder.countDistinct(root))
+                .groupBy(categoryId);
+        restrict(query, root, specification);
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            counts.put(tuple.get(0, Long.class), tuple.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> countBooksByAuthor(Specification<Book> specification, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        Path<String> author = root.get("author");
+        Expression<Long> count = criteriaBuilder.countDistinct(root);
+        query.multiselect(author, count)
+                .groupBy(author)
+                .orderBy(criteriaBuilder.desc(count), criteriaBuilder.asc(author));
+        restrict(query, root, specification);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).setMaxResults(limit)
+                .getResultList()) {
+            counts.put(tuple.get(0, String.class), tuple.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    @Override
+    public PriceRange findPriceRange(Specification<Book> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        Path<BigDecimal> price = root.get("price");
+        query.multiselect(criteriaBuilder.min(price), criteriaBuilder.max(price));
+        restrict(query, root, specification);
+        Tuple tuple = entityManager.createQuery(query).getSingleResult();
+        return new PriceRange(tuple.get(0, BigDecimal.class), tuple.get(1, BigDecimal.class));
+    }
+
+    private void restrict(CriteriaQuery<Tuple> query, Root<Book> root,
+                          Specification<Book> specification) {
+        Predicate predicate = specification.toPredicate(root, query,
+                entityManager.getCriteriaBuilder());
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.repository.book;
+
+import com.example.demo.dto.book.BookDto;
+import com.example.demo.dto.book.CreateBookRequestDto;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+/**
+ * Plain JDBC for bulk catalog loads and exports, where going through the entity
+ * manager would cost a statement per book or keep every book in the persistence context.
+ */
+@RequiredArgsConstructor
+@Repository
+public class BookJdbcRepository {
+    private static final String UPSERT_BOOK = "INSERT INTO books "
+            + "(title, author, isbn, price, description, cover_image, stock, is_deleted) "
+            + "VALUES (:title, :author, :isbn, :price, :description, :coverImage, "
+            + "COALESCE(:stock, 0), false) "
+            + "ON DUPLICATE KEY UPDATE title = VALUES(title), author = VALUES(author), "
+            + "price = VALUES(price), description = VALUES(description), "
+            + "cover_image = VALUES(cover_image), stock = COALESCE(:stock, stock), "
+            + "is_deleted = false, updated_at = CURRENT_TIMESTAMP(6)";
+    private static final String SELECT_IDS_BY_ISBN =
+            "SELECT id, isbn FROM books WHERE isbn IN (:isbns)";
+    private static final String DELETE_CATEGORIES =
+            "DELETE FROM books_categories WHERE book_id IN (:bookIds)";
+    private static final String INSERT_CATEGORY =
+            "INSERT INTO books_categories (book_id, category_id) VALUES (?, ?)";
+    private static final String SELECT_ALL_BOOKS = "SELECT b.id, b.title, b.author, b.isbn, "
+            + "b.price, b.description, b.cover_image, "
+            + "GROUP_CONCAT(c.id ORDER BY c.id) AS category_ids "
+            + "FROM books b LEFT JOIN books_categories bc ON bc.book_id = b.id "
+            + "LEFT JOIN categories c ON c.id = bc.category_id AND c.is_deleted = false "
+            + "WHERE b.is_deleted = false GROUP BY b.id ORDER BY b.id";
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts or updates the books by isbn in one batch and returns their ids by isbn,
+     * compared case-insensitively like the isbn column. The stock of an existing book
+     * is only replaced when the row gives one.
+     */
+    public Map<String, Long> upsert(Collection<CreateBookRequestDto> books) {
+        SqlParameterSource[] parameters = books.stream()
+                .map(BeanPropertySqlParameterSource::new)
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_BOOK, parameters);
+        Map<String, Long> ids = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        jdbcTemplate.query(SELECT_IDS_BY_ISBN,
+                Map.of("isbns", books.stream().map(CreateBookRequestDto::getIsbn).toList()),
+                resultSet -> {
+                    ids.put(resultSet.getString("isbn"), resultSet.getLong("id"));
+                });
+        return ids;
+    }
+
+    public void replaceCategories(Map<Long, Set<Long>> categoryIdsByBookId) {
+        jdbcTemplate.update(DELETE_CATEGORIES, Map.of("bookIds", categoryIdsByBookId.keySet()));
+        List<Object[]> links = new ArrayList<>();
+        categoryIdsByBookId.forEach((bookId, categoryIds) -> categoryIds
+                .forEach(categoryId -> links.add(new Object[]{bookId, categoryId})));
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_CATEGORY, links);
+    }
+
+    /**
+     * Reads every book through a forward-only cursor; with a fetch size of
+     * Integer.MIN_VALUE Connector/J streams rows instead of buffering the result set.
+     */
+    public void streamAll(Consumer<BookDto> consumer) {
+        jdbcTemplate.getJdbcTemplate().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL_BOOKS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(toBookDto(resultSet)));
+    }
+
+    private BookDto toBookDto(ResultSet resultSet) throws SQLException {
+        BookDto book = new BookDto();
+        book.setId(resultSet.getLong("id"));
+        book.setTitle(resultSet.getString("title"));
+        book.setAuthor(resultSet.getString("author"));
+        book.setIsbn(resultSet.getString("isbn"));
+        book.setPrice(resultSet.getBigDecimal("price"));
+        book.setDescription(resultSet.getString("description"));
+        book.setCoverImage(resultSet.getString("cover_image"));
+        String categoryIds = resultSet.getString("category_ids");
+        book.setCategoryIds(StringUtils.hasText(categoryIds)
+                ? Arrays.stream(categoryIds.split(","))
+                        .map(Long::valueOf)
+                        .collect(Collectors.toSet())
+                : Set.of());
+        return book;
+    }
+}
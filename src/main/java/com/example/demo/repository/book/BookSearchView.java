@@ -0,0 +1,13 @@
+package com.example.demo.repository.book;
+
+public interface BookSearchView {
+    Long getId();
+
+    String getTitle();
+
+    String getAuthor();
+
+    String getIsbn();
+
+    String getDescription();
+}
@@ -0,0 +1,50 @@
+package com.example.demo.repository.book;
+
+import com.example.demo.dto.book.BookFilterDto;
+import com.example.demo.model.Book;
+import java.math.BigDecimal;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class BookSpecifications {
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> matching(BookFilterDto filter) {
+        return Specification.where(inCategory(filter.categoryId()))
+                .and(byAuthor(filter.author()))
+                .and(priceFrom(filter.minPrice()))
+                .and(priceTo(filter.maxPrice()));
+    }
+
+    public static Specification<Book> inCategory(Long categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.join("categories").get("id"), categoryId);
+    }
+
+    public static Specification<Book> byAuthor(String author) {
+        if (author == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("author"), author);
+    }
+
+    public static Specification<Book> priceFrom(BigDecimal minPrice) {
+        if (minPrice == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Book> priceTo(BigDecimal maxPrice) {
+        if (maxPrice == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.demo.repository.book;
+
+import java.math.BigDecimal;
+
+public record PriceRange(BigDecimal min, BigDecimal max) {
+}
@@ -1,8 +1,15 @@
 package com.example.demo.repository.cartitem;
 
+import com.example.demo.dto.cartitem.CartItemResponseDto;
 import com.example.demo.model.CartItem;
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -10,4 +17,34 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByIdAndShoppingCartId(Long id, Long shoppingCartId);
 
     void deleteCartItemByIdAndShoppingCartId(Long id, Long shoppingCartId);
+
+    /**
+     * Native writes declare the table they touch, so Hibernate only invalidates cached
+     * cart items and the queries over them instead of every second-level cache region.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cart_items"))
+    @Query(value = "INSERT INTO cart_items (shopping_cart_id, book_id, quantity, is_deleted) "
+            + "VALUES (:shoppingCartId, :bookId, :quantity, false) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "quantity = IF(is_deleted, VALUES(quantity), quantity + VALUES(quantity)), "
+            + "is_deleted = false",
+            nativeQuery = true)
+    int addQuantity(@Param("shoppingCartId") Long shoppingCartId,
+                    @Param("bookId") Long bookId,
+                    @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cart_items"))
+    @Query(value = "UPDATE cart_items SET is_deleted = true "
+            + "WHERE shopping_cart_id = :shoppingCartId AND is_deleted = false",
+            nativeQuery = true)
+    int markDeletedByShoppingCartId(@Param("shoppingCartId") Long shoppingCartId);
+
+    @Query("SELECT new com.example.demo.dto.cartitem.CartItemResponseDto("
+            + "ci.id, b.id, b.title, ci.quantity) "
+            + "FROM CartItem ci JOIN ci.book b "
+            + "WHERE ci.shoppingCart.id = :shoppingCartId AND b.id = :bookId")
+    Optional<CartItemResponseDto> findItemView(@Param("shoppingCartId") Long shoppingCartId,
+                                               @Param("bookId") Long bookId);
 }
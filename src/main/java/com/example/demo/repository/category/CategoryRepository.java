@@ -1,9 +1,17 @@
 package com.example.demo.repository.category;
 
 import com.example.demo.model.Category;
+import jakarta.persistence.QueryHint;
+import java.util.Set;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface CategoryRepository extends JpaRepository<Category, Long>,
         JpaSpecificationExecutor<Category> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c.id FROM Category c")
+    Set<Long> findAllIds();
 }
@@ -0,0 +1,78 @@
+package com.example.demo.repository.order;
+
+import com.example.demo.model.OrderEvent;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+    String OUTBOX_SPACE = "order_events";
+
+    /**
+     * Locks the next due events; rows already locked by another dispatcher are skipped
+     * rather than waited for, so several instances can drain the outbox side by side.
+     */
+    @Query(value = "SELECT * FROM order_events "
+            + "WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OrderEvent> lockDueEvents(@Param("now") LocalDateTime now,
+                                   @Param("limit") int limit);
+
+    /**
+     * Pushes the next attempt of claimed events past the claim timeout, so they aren't
+     * due for anyone else while they're delivered, and are due again if the claiming
+     * dispatcher dies before recording the outcome.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = OUTBOX_SPACE))
+    @Query(value = "UPDATE order_events SET next_attempt_at = :claimedUntil "
+            + "WHERE id IN (:ids)", nativeQuery = true)
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = OUTBOX_SPACE))
+    @Query(value = "UPDATE order_events SET status = 'DELIVERED', delivered_at = :deliveredAt, "
+            + "last_error = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int markDelivered(@Param("ids") Collection<Long> ids,
+                      @Param("deliveredAt") LocalDateTime deliveredAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = OUTBOX_SPACE))
+    @Query(value = "UPDATE order_events SET attempts = :attempts, "
+            + "next_attempt_at = :nextAttemptAt, last_error = :lastError WHERE id = :id",
+            nativeQuery = true)
+    int scheduleRetry(@Param("id") Long id,
+                      @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("lastError") String lastError);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = OUTBOX_SPACE))
+    @Query(value = "UPDATE order_events SET status = 'FAILED', attempts = :attempts, "
+            + "last_error = :lastError WHERE id = :id", nativeQuery = true)
+    int markFailed(@Param("id") Long id,
+                   @Param("attempts") int attempts,
+                   @Param("lastError") String lastError);
+
+    /**
+     * Deletes up to {@code limit} events delivered before the given time and returns how
+     * many it deleted, so a large backlog is purged in short transactions.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = OUTBOX_SPACE))
+    @Query(value = "DELETE FROM order_events WHERE status = 'DELIVERED' "
+            + "AND delivered_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteDeliveredBefore(@Param("before") LocalDateTime before,
+                              @Param("limit") int limit);
+}
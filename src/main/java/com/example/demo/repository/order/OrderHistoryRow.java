@@ -0,0 +1,18 @@
+package com.example.demo.repository.order;
+
+import com.example.demo.model.Order;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One order item joined with its order; orders without items produce a single row
+ * with null item columns.
+ */
+public record OrderHistoryRow(Long orderId,
+                              LocalDateTime orderDate,
+                              BigDecimal totalPrice,
+                              Order.Status status,
+                              Long itemId,
+                              Long bookId,
+                              Integer quantity) {
+}
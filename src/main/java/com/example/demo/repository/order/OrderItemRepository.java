@@ -1,6 +1,9 @@
 package com.example.demo.repository.order;
 
+import com.example.demo.dto.order.OrderItemsResponseDto;
 import com.example.demo.model.OrderItem;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -9,9 +12,16 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    @Query("SELECT oi FROM OrderItem oi JOIN oi.order o "
+    @Query("SELECT new com.example.demo.dto.order.OrderItemsResponseDto("
+            + "oi.id, oi.book.id, oi.quantity) "
+            + "FROM OrderItem oi JOIN oi.order o "
             + "WHERE oi.id = :id AND o.id = :orderId AND o.user.id = :userId")
-    Optional<OrderItem> findByIdAndOrderId(@Param("orderId") Long orderId,
-                                           @Param("id") Long id,
-                                           @Param("userId") Long userId);
+    Optional<OrderItemsResponseDto> findByIdAndOrderId(@Param("orderId") Long orderId,
+                                                       @Param("id") Long id,
+                                                       @Param("userId") Long userId);
+
+    @Query("SELECT new com.example.demo.repository.order.OrderItemRow("
+            + "oi.order.id, oi.id, oi.book.id, oi.quantity) "
+            + "FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    List<OrderItemRow> findRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
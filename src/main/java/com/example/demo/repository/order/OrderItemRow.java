@@ -0,0 +1,7 @@
+package com.example.demo.repository.order;
+
+public record OrderItemRow(Long orderId,
+                           Long itemId,
+                           Long bookId,
+                           int quantity) {
+}
@@ -1,17 +1,43 @@
 package com.example.demo.repository.order;
 
 import com.example.demo.model.Order;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
-import org.springframework.data.jpa.repository.EntityGraph;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    @EntityGraph(attributePaths = "orderItems")
-    List<Order> findAllByUserId(Long userId);
+public interface OrderRepository extends JpaRepository<Order, Long>,
+        JpaSpecificationExecutor<Order> {
+    String SELECT_HISTORY_ROWS = "SELECT new com.example.demo.repository.order.OrderHistoryRow("
+            + "o.id, o.orderDate, o.totalPrice, o.status, oi.id, oi.book.id, oi.quantity) "
+            + "FROM Order o LEFT JOIN o.orderItems oi ";
 
-    @EntityGraph(attributePaths = "orderItems")
-    Optional<Order> findByIdAndUserId(Long id, Long userId);
+    @Query(SELECT_HISTORY_ROWS + "WHERE o.id = :id AND o.user.id = :userId")
+    List<OrderHistoryRow> findHistoryRows(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Streams the user's orders row by row; MySQL Connector/J only streams
+     * instead of buffering the whole result when the fetch size is Integer.MIN_VALUE.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(SELECT_HISTORY_ROWS
+            + "WHERE o.user.id = :userId "
+            + "AND (:from IS NULL OR o.orderDate >= :from) "
+            + "AND (:to IS NULL OR o.orderDate < :to) "
+            + "AND (:status IS NULL OR o.status = :status) "
+            + "ORDER BY o.orderDate DESC, o.id DESC")
+    Stream<OrderHistoryRow> streamHistory(@Param("userId") Long userId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          @Param("status") Order.Status status);
 }
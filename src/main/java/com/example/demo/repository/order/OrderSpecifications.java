@@ -0,0 +1,47 @@
+package com.example.demo.repository.order;
+
+import com.example.demo.dto.order.OrderFilterDto;
+import com.example.demo.model.Order;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class OrderSpecifications {
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> matching(Long userId, OrderFilterDto filter) {
+        return Specification.where(byUser(userId))
+                .and(placedFrom(filter.from()))
+                .and(placedTo(filter.to()))
+                .and(withStatus(filter.status()));
+    }
+
+    public static Specification<Order> byUser(Long userId) {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Order> placedFrom(LocalDateTime from) {
+        if (from == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.greaterThanOrEqualTo(root.get("orderDate"), from);
+    }
+
+    public static Specification<Order> placedTo(LocalDateTime to) {
+        if (to == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.lessThan(root.get("orderDate"), to);
+    }
+
+    public static Specification<Order> withStatus(Order.Status status) {
+        if (status == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("status"), status);
+    }
+}
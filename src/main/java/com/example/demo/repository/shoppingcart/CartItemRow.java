@@ -0,0 +1,12 @@
+package com.example.demo.repository.shoppingcart;
+
+/**
+ * One cart item with its book title; an empty cart produces a single row
+ * with null item columns.
+ */
+public record CartItemRow(Long userId,
+                          Long cartItemId,
+                          Long bookId,
+                          String bookTitle,
+                          Integer quantity) {
+}
@@ -1,6 +1,7 @@
 package com.example.demo.repository.shoppingcart;
 
 import com.example.demo.model.ShoppingCart;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -12,4 +13,11 @@ public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long
             + "LEFT JOIN FETCH sc.cartItems ci "
             + "LEFT JOIN FETCH ci.book WHERE sc.user.id = :userId")
     Optional<ShoppingCart> findByUserIdFetchCartItemsAndBooks(Long userId);
+
+    @Query("SELECT new com.example.demo.repository.shoppingcart.CartItemRow("
+            + "sc.user.id, ci.id, b.id, b.title, ci.quantity) "
+            + "FROM ShoppingCart sc "
+            + "LEFT JOIN sc.cartItems ci "
+            + "LEFT JOIN ci.book b WHERE sc.user.id = :userId")
+    List<CartItemRow> findCartRows(Long userId);
 }
@@ -2,7 +2,9 @@ package com.example.demo.security;
 
 import com.example.demo.dto.user.LoginUserRequestDto;
 import com.example.demo.dto.user.LoginUserResponseDto;
+import com.example.demo.model.User;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -13,12 +15,16 @@ import org.springframework.stereotype.Service;
 public class AuthenticationService {
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
 
     public LoginUserResponseDto authenticate(LoginUserRequestDto userDto) {
         final Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(userDto.email(), userDto.password())
         );
-        String generateToken = jwtUtil.generateToken(authentication.getName());
+        String generateToken = stateless
+                ? jwtUtil.generateToken((User) authentication.getPrincipal())
+                : jwtUtil.generateToken(authentication.getName());
         return new LoginUserResponseDto(generateToken);
     }
 }
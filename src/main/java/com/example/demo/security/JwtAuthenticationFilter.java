@@ -1,14 +1,25 @@
 package com.example.demo.security;
 
+import com.example.demo.model.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -22,6 +33,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String BEARER_PREFIX = "Bearer ";
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(
@@ -30,16 +44,59 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain)
             throws ServletException, IOException {
         String token = getToken(request);
-        if (token != null && jwtUtil.validateToken(token)) {
-            String userName = jwtUtil.getUserName(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userName);
-            Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (token != null) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "failure";
+            try {
+                authenticate(token);
+                outcome = "success";
+            } catch (JwtException | AuthenticationException e) {
+                SecurityContextHolder.clearContext();
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, e.getMessage());
+                return;
+            } finally {
+                sample.stop(meterRegistry.timer("security.jwt.authentication",
+                        "outcome", outcome));
+            }
         }
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * In stateless mode the principal is rebuilt from the id and roles signed into the
+     * token; tokens issued without them still go through the user details service.
+     */
+    private void authenticate(String token) {
+        Claims claims = jwtUtil.parseToken(token);
+        UserDetails userDetails = stateless && claims.containsKey(JwtUtil.USER_ID_CLAIM)
+                ? toPrincipal(claims)
+                : userDetailsService.loadUserByUsername(claims.getSubject());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    /**
+     * Rejects tokens whose id or roles claims are missing or name an unknown role,
+     * rather than authorizing them with whatever could be read.
+     */
+    private JwtPrincipal toPrincipal(Claims claims) {
+        Object userId = claims.get(JwtUtil.USER_ID_CLAIM);
+        Object roleNames = claims.get(JwtUtil.ROLES_CLAIM);
+        if (!(userId instanceof Number id) || !(roleNames instanceof List<?> names)) {
+            throw new BadCredentialsException("JWT token has no user id or roles");
+        }
+        Set<Role.RoleName> roles = EnumSet.noneOf(Role.RoleName.class);
+        for (Object roleName : names) {
+            try {
+                roles.add(Role.RoleName.valueOf(String.valueOf(roleName)));
+            } catch (IllegalArgumentException e) {
+                throw new BadCredentialsException("JWT token has an unknown role " + roleName);
+            }
+        }
+        return new JwtPrincipal(id.longValue(), claims.getSubject(), roles);
+    }
+
     private String getToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
@@ -0,0 +1,32 @@
+package com.example.demo.security;
+
+import com.example.demo.model.Role;
+import java.util.Collection;
+import java.util.Set;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Principal of a request authorized from the claims of a stateless token. It carries no
+ * password or profile; code that needs the user entity loads it by {@link #id()}.
+ */
+public record JwtPrincipal(Long id, String email, Set<Role.RoleName> roles)
+        implements UserDetails {
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roles.stream()
+                .map(roleName -> new SimpleGrantedAuthority(roleName.name()))
+                .toList();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -1,25 +1,48 @@
 package com.example.demo.security;
 
+import com.example.demo.model.Role;
+import com.example.demo.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtUtil {
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+    private static final String HASH_ALGORITHM = "SHA-256";
     private final Key secret;
+    private final JwtParser parser;
+    private final Cache<String, Claims> claimsCache;
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    public JwtUtil(@Value("${jwt.secret}") String secretString) {
+    public JwtUtil(@Value("${jwt.secret}") String secretString,
+                   @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
         this.secret = Keys.hmacShaKeyFor(secretString.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secret)
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ClaimsExpiry())
+                .build();
     }
 
     public String generateToken(String username) {
@@ -31,30 +54,88 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Also signs the user id and role names into the token, so a request can be
+     * authorized from the claims alone. Role changes apply once the token expires.
+     */
+    public String generateToken(User user) {
+        List<String> roles = user.getRoles().stream()
+                .map(Role::getAuthority)
+                .sorted()
+                .toList();
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, roles)
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                .signWith(secret)
+                .compact();
+    }
+
     public boolean validateToken(String token) {
-        try {
-            Jws<Claims> claimsJws = Jwts.parserBuilder()
-                    .setSigningKey(secret)
-                    .build()
-                    .parseClaimsJws(token);
+        return !parseToken(token).getExpiration().before(new Date());
+    }
+
+    public String getUserName(String token) {
+        return getClaimFromToken(token, Claims::getSubject);
+    }
+
+    /**
+     * Verifies the token signature once and remembers the claims until the token expires,
+     * so repeated requests with the same token skip parsing and the HMAC check.
+     */
+    public Claims parseToken(String token) {
+        String key = hash(token);
+        Claims claims = claimsCache.getIfPresent(key);
+        if (claims != null) {
+            return claims;
+        }
+        claims = verify(token);
+        claimsCache.put(key, claims);
+        return claims;
+    }
+
+    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
+        return claimsResolver.apply(parseToken(token));
+    }
 
-            return !claimsJws.getBody().getExpiration().before(new Date());
+    private Claims verify(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException e) {
             throw new JwtException(String.format("Expired or invalid JWT token. %s",
                     e.getMessage()));
         }
     }
 
-    public String getUserName(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance(HASH_ALGORITHM)
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Can't hash JWT token", e);
+        }
     }
 
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secret)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long millisLeft = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -1,7 +1,13 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.book.BookDto;
+import com.example.demo.dto.book.BookDtoWithoutCategoryIds;
+import com.example.demo.dto.book.BookFilterDto;
 import com.example.demo.dto.book.CreateBookRequestDto;
+import com.example.demo.dto.book.FacetedBookPageDto;
+import com.example.demo.dto.page.CursorPageDto;
+import com.example.demo.repository.ResourceVersion;
+import java.time.LocalDateTime;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -10,8 +16,20 @@ public interface BookService {
 
     Page<BookDto> findAll(Pageable pageable);
 
+    CursorPageDto<BookDto> findAll(String cursor, Pageable pageable);
+
+    FacetedBookPageDto filter(BookFilterDto filter, Pageable pageable);
+
     BookDto findById(Long id);
 
+    LocalDateTime getLastModified(Long id);
+
+    ResourceVersion getVersion();
+
+    Page<BookDto> search(String query, Pageable pageable);
+
+    Page<BookDtoWithoutCategoryIds> findAllByCategoryId(Long categoryId, Pageable pageable);
+
     BookDto update(Long id, CreateBookRequestDto bookDto);
 
     void deleteById(Long id);
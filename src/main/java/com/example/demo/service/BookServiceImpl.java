@@ -1,51 +1,189 @@
 package com.example.demo.service;
 
+import com.example.demo.config.CacheConfig;
+import com.example.demo.config.ReplicaRoutingDataSource;
 import com.example.demo.dto.book.BookDto;
+import com.example.demo.dto.book.BookDtoWithoutCategoryIds;
+import com.example.demo.dto.book.BookFacetsDto;
+import com.example.demo.dto.book.BookFilterDto;
 import com.example.demo.dto.book.CreateBookRequestDto;
+import com.example.demo.dto.book.FacetedBookPageDto;
+import com.example.demo.dto.page.CursorPageDto;
 import com.example.demo.mapper.BookMapper;
 import com.example.demo.model.Book;
 import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.ResourceVersion;
+import com.example.demo.repository.book.BookSpecifications;
+import com.example.demo.repository.book.PriceRange;
+import com.example.demo.service.category.CategoryBookIndex;
+import com.example.demo.service.pagination.KeysetCursorCodec;
+import com.example.demo.service.search.BookSearchIndex;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+@Timed("service.calls")
 @RequiredArgsConstructor
 @Service
 public class BookServiceImpl implements BookService {
+    private static final String CACHED_PAGES_CONDITION =
+            "#pageable.paged and #pageable.pageNumber < 5";
+    private static final int AUTHOR_FACET_SIZE = 20;
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
+    private final KeysetCursorCodec cursorCodec;
+    private final BookSearchIndex searchIndex;
+    private final CategoryBookIndex categoryBookIndex;
 
     @Override
+    @Caching(put = @CachePut(cacheNames = CacheConfig.BOOKS, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.BOOK_PAGES, allEntries = true))
     public BookDto save(CreateBookRequestDto bookDto) {
-        Book book = bookMapper.toModel(bookDto);
-        return bookMapper.toDto(bookRepository.save(book));
+        Book book = bookRepository.save(bookMapper.toModel(bookDto));
+        searchIndex.index(book);
+        categoryBookIndex.index(book);
+        return bookMapper.toDto(book);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.BOOK_PAGES, condition = CACHED_PAGES_CONDITION)
+    @Transactional(readOnly = true)
     public Page<BookDto> findAll(Pageable pageable) {
-        return bookRepository.findAll(pageable)
+        // Filled again right after every write evicts it, so a replica would still lag then
+        return ReplicaRoutingDataSource.onPrimary(() -> bookRepository.findAll(pageable))
                 .map(bookMapper::toDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<BookDto> findAll(String cursor, Pageable pageable) {
+        Window<Book> window = bookRepository.findBy(Specification.where(null), query -> query
+                .sortBy(pageable.getSort())
+                .limit(pageable.getPageSize())
+                .scroll(cursorCodec.decode(cursor, Book.class, pageable.getSort())));
+        return cursorCodec.toPage(window.map(bookMapper::toDto));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FacetedBookPageDto filter(BookFilterDto filter, Pageable pageable) {
+        Page<BookDto> page = bookRepository.findAll(BookSpecifications.matching(filter), pageable)
+                .map(bookMapper::toDto);
+        PriceRange priceRange = bookRepository.findPriceRange(BookSpecifications.matching(
+                new BookFilterDto(filter.categoryId(), filter.author(), null, null)));
+        BookFacetsDto facets = new BookFacetsDto(
+                bookRepository.countBooksByCategory(BookSpecifications.matching(
+                        new BookFilterDto(null, filter.author(),
+                                filter.minPrice(), filter.maxPrice()))),
+                bookRepository.countBooksByAuthor(BookSpecifications.matching(
+                        new BookFilterDto(filter.categoryId(), null,
+                                filter.minPrice(), filter.maxPrice())), AUTHOR_FACET_SIZE),
+                priceRange.min(),
+                priceRange.max());
+        return new FacetedBookPageDto(page, facets);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#id")
+    @Transactional(readOnly = true)
     public BookDto findById(Long id) {
-        Book book = bookRepository.findById(id).orElseThrow(() ->
-                new EntityNotFoundException("Can't find book by id " + id));
+        // Cached until the book changes, so it must not be filled from a lagging replica
+        Book book = ReplicaRoutingDataSource.onPrimary(() -> bookRepository.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Can't find book by id " + id));
         return bookMapper.toDto(book);
     }
 
     @Override
+    public LocalDateTime getLastModified(Long id) {
+        return bookRepository.findUpdatedAtById(id).orElseThrow(() ->
+                new EntityNotFoundException("Can't find book by id " + id));
+    }
+
+    @Override
+    public ResourceVersion getVersion() {
+        return bookRepository.findVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookDto> search(String query, Pageable pageable) {
+        BookSearchIndex.SearchHits hits = searchIndex.search(query, pageable.getOffset(),
+                pageable.getPageSize());
+        Map<Long, Book> books = bookRepository.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<BookDto> content = hits.ids().stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .map(bookMapper::toDto)
+                .toList();
+        return new PageImpl<>(content, pageable, hits.total());
+    }
+
+    /**
+     * Unsorted pages are cut from the category's cached book id list, in id order,
+     * so only the books of the page are read; sorted pages join through books_categories.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookDtoWithoutCategoryIds> findAllByCategoryId(Long categoryId,
+                                                               Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().isSorted()) {
+            return bookRepository.findAllByCategoryId(categoryId, pageable);
+        }
+        long[] bookIds = categoryBookIndex.getBookIds(categoryId);
+        List<Long> pageIds = Arrays.stream(bookIds)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .boxed()
+                .toList();
+        List<BookDtoWithoutCategoryIds> content = pageIds.isEmpty()
+                ? List.of()
+                : bookRepository.findViewsByIdIn(pageIds);
+        return new PageImpl<>(content, pageable, bookIds.length);
+    }
+
+    @Override
+    @Caching(put = @CachePut(cacheNames = CacheConfig.BOOKS, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.BOOK_PAGES, allEntries = true))
+    @Transactional
     public BookDto update(Long id, CreateBookRequestDto bookDto) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Can't find book by id" + id));
         bookMapper.updateModelFromDto(book, bookDto);
-        return bookMapper.toDto(bookRepository.save(book));
+        // category links live in books_categories and don't dirty the row on their own;
+        // the database stamps updated_at in the update this forces, like in every other write
+        book.setUpdatedAt(null);
+        Book updatedBook = bookRepository.saveAndFlush(book);
+        searchIndex.index(updatedBook);
+        categoryBookIndex.index(updatedBook);
+        return bookMapper.toDto(updatedBook);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_PAGES, allEntries = true)})
     public void deleteById(Long id) {
         bookRepository.deleteById(id);
+        searchIndex.remove(id);
+        categoryBookIndex.remove(id);
     }
 }
@@ -0,0 +1,10 @@
+package com.example.demo.service.book;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+    void exportNdjson(OutputStream outputStream) throws IOException;
+
+    void exportCsv(OutputStream outputStream) throws IOException;
+}
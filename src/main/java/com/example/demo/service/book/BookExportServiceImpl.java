@@ -0,0 +1,57 @@
+package com.example.demo.service.book;
+
+import com.example.demo.dto.book.BookDto;
+import com.example.demo.repository.book.BookJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes each book as soon as its row is read, so the export never holds more than
+ * one book regardless of catalog size.
+ */
+@RequiredArgsConstructor
+@Service
+public class BookExportServiceImpl implements BookExportService {
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final ObjectWriter CSV_WRITER = CSV_MAPPER.writer(CSV_MAPPER
+            .schemaFor(BookDto.class)
+            .withHeader()
+            .withArrayElementSeparator(";"));
+    private final BookJdbcRepository bookJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream outputStream) throws IOException {
+        export(objectMapper.writerFor(BookDto.class)
+                .withRootValueSeparator("\n"), outputStream);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCsv(OutputStream outputStream) throws IOException {
+        export(CSV_WRITER, outputStream);
+    }
+
+    private void export(ObjectWriter writer, OutputStream outputStream) throws IOException {
+        try (SequenceWriter books = writer.writeValues(outputStream)) {
+            bookJdbcRepository.streamAll(book -> write(books, book));
+        }
+    }
+
+    private void write(SequenceWriter books, BookDto book) {
+        try {
+            books.write(book);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.service.book;
+
+import com.example.demo.dto.book.BookImportReportDto;
+import java.io.InputStream;
+
+public interface BookImportService {
+    BookImportReportDto importCsv(InputStream csv);
+
+    BookImportReportDto importNdjson(InputStream ndjson);
+}
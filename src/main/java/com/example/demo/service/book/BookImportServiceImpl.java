@@ -0,0 +1,219 @@
+package com.example.demo.service.book;
+
+import com.example.demo.config.CacheConfig;
+import com.example.demo.dto.book.BookImportErrorDto;
+import com.example.demo.dto.book.BookImportReportDto;
+import com.example.demo.dto.book.CreateBookRequestDto;
+import com.example.demo.model.Book;
+import com.example.demo.repository.book.BookJdbcRepository;
+import com.example.demo.repository.category.CategoryRepository;
+import com.example.demo.service.category.CategoryBookIndex;
+import com.example.demo.service.search.BookSearchIndex;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reads the feed one row at a time, validates each row and writes valid rows in chunks,
+ * each chunk in its own transaction, so a feed of any size never sits in memory and
+ * a failing chunk only rejects its own rows. A row repeating the isbn of an earlier row
+ * in the same chunk is rejected; across chunks, the later row updates the book.
+ */
+@RequiredArgsConstructor
+@Service
+public class BookImportServiceImpl implements BookImportService {
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String BOOK_CATEGORIES_ROLE = Book.class.getName() + ".categories";
+    private static final ObjectReader CSV_READER = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build()
+            .readerFor(CreateBookRequestDto.class)
+            .with(CsvSchema.emptySchema()
+                    .withHeader()
+                    .withArrayElementSeparator(";"));
+    private final BookJdbcRepository bookJdbcRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final BookSearchIndex searchIndex;
+    private final CategoryBookIndex categoryBookIndex;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public BookImportReportDto importCsv(InputStream csv) {
+        try {
+            return importRows(CSV_READER.readValues(csv));
+        } catch (IOException e) {
+            return rejectInput(e);
+        }
+    }
+
+    @Override
+    public BookImportReportDto importNdjson(InputStream ndjson) {
+        try {
+            return importRows(objectMapper.readerFor(CreateBookRequestDto.class)
+                    .readValues(ndjson));
+        } catch (IOException e) {
+            return rejectInput(e);
+        }
+    }
+
+    private BookImportReportDto importRows(MappingIterator<CreateBookRequestDto> rows) {
+        Set<Long> categoryIds = categoryRepository.findAllIds();
+        ImportReport report = new ImportReport();
+        Map<String, ImportRow> chunk = new LinkedHashMap<>();
+        long row = 0;
+        try (rows) {
+            while (rows.hasNextValue()) {
+                row++;
+                CreateBookRequestDto book;
+                try {
+                    book = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    report.reject(row, null, List.of(e.getOriginalMessage()));
+                    continue;
+                }
+                List<String> problems = validate(book, categoryIds);
+                if (!problems.isEmpty()) {
+                    report.reject(row, book.getIsbn(), problems);
+                    continue;
+                }
+                ImportRow previous = chunk.putIfAbsent(book.getIsbn().toUpperCase(Locale.ROOT),
+                        new ImportRow(row, book));
+                if (previous != null) {
+                    report.reject(row, book.getIsbn(), List.of("isbn is already given in row "
+                            + previous.row()));
+                    continue;
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    write(chunk.values(), report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            report.reject(row + 1, null, List.of("Malformed input, import stopped: "
+                    + e.getMessage()));
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk.values(), report);
+        }
+        return report.toDto(row);
+    }
+
+    private List<String> validate(CreateBookRequestDto book, Set<Long> categoryIds) {
+        List<String> problems = validator.validate(book).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (!StringUtils.hasText(book.getIsbn())) {
+            problems.add("isbn is required");
+        }
+        if (book.getCategoryIds() != null) {
+            List<Long> unknownCategories = book.getCategoryIds().stream()
+                    .filter(categoryId -> !categoryIds.contains(categoryId))
+                    .toList();
+            if (!unknownCategories.isEmpty()) {
+                problems.add("unknown category ids " + unknownCategories);
+            }
+        }
+        return problems;
+    }
+
+    private void write(Collection<ImportRow> rows, ImportReport report) {
+        List<CreateBookRequestDto> books = rows.stream()
+                .map(ImportRow::book)
+                .toList();
+        Map<String, Long> ids;
+        try {
+            ids = transactionTemplate.execute(status -> {
+                Map<String, Long> bookIds = bookJdbcRepository.upsert(books);
+                bookJdbcRepository.replaceCategories(books.stream()
+                        .collect(Collectors.toMap(book -> bookIds.get(book.getIsbn()),
+                                CreateBookRequestDto::getCategoryIds)));
+                return bookIds;
+            });
+        } catch (DataAccessException e) {
+            rows.forEach(row -> report.reject(row.row(), row.book().getIsbn(),
+                    List.of(e.getMostSpecificCause().getMessage())));
+            return;
+        }
+        report.imported += rows.size();
+        refreshCaches(books, Objects.requireNonNull(ids));
+    }
+
+    /**
+     * The rows were written over plain JDBC, so Hibernate's second-level and query
+     * caches know nothing about them and are evicted here along with the others.
+     */
+    private void refreshCaches(List<CreateBookRequestDto> books, Map<String, Long> ids) {
+        Cache bookCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.BOOKS));
+        org.hibernate.Cache entityCache = entityManagerFactory.unwrap(SessionFactory.class)
+                .getCache();
+        for (CreateBookRequestDto book : books) {
+            Long id = ids.get(book.getIsbn());
+            bookCache.evict(id);
+            entityCache.evictEntityData(Book.class, id);
+            entityCache.evictCollectionData(BOOK_CATEGORIES_ROLE, id);
+            searchIndex.index(id, book.getTitle(), book.getAuthor(), book.getIsbn(),
+                    book.getDescription());
+        }
+        Objects.requireNonNull(cacheManager.getCache(CacheConfig.BOOK_PAGES)).clear();
+        categoryBookIndex.invalidateAll();
+        entityCache.evictQueryRegions();
+    }
+
+    private BookImportReportDto rejectInput(IOException e) {
+        ImportReport report = new ImportReport();
+        report.reject(1, null, List.of("Can't read input: " + e.getMessage()));
+        return report.toDto(0);
+    }
+
+    private record ImportRow(long row, CreateBookRequestDto book) {
+    }
+
+    private static class ImportReport {
+        private final List<BookImportErrorDto> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private void reject(long row, String isbn, List<String> messages) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportErrorDto(row, isbn, messages));
+            }
+        }
+
+        private BookImportReportDto toDto(long processed) {
+            return new BookImportReportDto(processed, imported, failed, errors);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.service.category;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.Category;
+import com.example.demo.repository.BookRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sorted book id posting lists for recently requested categories. Lists are loaded
+ * from the books_categories index on first use and patched in place on book writes,
+ * so paging through a hot category only has to fetch the books of the page.
+ */
+@Component
+public class CategoryBookIndex {
+    private final LoadingCache<Long, long[]> postings;
+
+    public CategoryBookIndex(BookRepository bookRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${cache.category-books.spec}") String spec) {
+        this.postings = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.from(spec)
+                .build(categoryId -> bookRepository.findIdsByCategoryId(categoryId).stream()
+                        .mapToLong(Long::longValue)
+                        .toArray()), "categoryBooks");
+    }
+
+    public long[] getBookIds(Long categoryId) {
+        return postings.get(categoryId);
+    }
+
+    public void index(Book book) {
+        Set<Long> categoryIds = book.getCategories().stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+        postings.asMap().replaceAll((categoryId, bookIds) -> categoryIds.contains(categoryId)
+                ? with(bookIds, book.getId())
+                : without(bookIds, book.getId()));
+    }
+
+    public void invalidate(Long categoryId) {
+        postings.invalidate(categoryId);
+    }
+
+    public void invalidateAll() {
+        postings.invalidateAll();
+    }
+
+    public void remove(Long bookId) {
+        postings.asMap().replaceAll((categoryId, bookIds) -> without(bookIds, bookId));
+    }
+
+    private long[] with(long[] bookIds, long bookId) {
+        int position = Arrays.binarySearch(bookIds, bookId);
+        if (position >= 0) {
+            return bookIds;
+        }
+        int insertAt = -position - 1;
+        long[] result = new long[bookIds.length + 1];
+        System.arraycopy(bookIds, 0, result, 0, insertAt);
+        result[insertAt] = bookId;
+        System.arraycopy(bookIds, insertAt, result, insertAt + 1, bookIds.length - insertAt);
+        return result;
+    }
+
+    private long[] without(long[] bookIds, long bookId) {
+        int position = Arrays.binarySearch(bookIds, bookId);
+        if (position < 0) {
+            return bookIds;
+        }
+        long[] result = new long[bookIds.length - 1];
+        System.arraycopy(bookIds, 0, result, 0, position);
+        System.arraycopy(bookIds, position + 1, result, position, result.length - position);
+        return result;
+    }
+}
@@ -2,14 +2,23 @@ package com.example.demo.service.category;
 
 import com.example.demo.dto.category.CategoryDto;
 import com.example.demo.dto.category.CreateCategoryRequestDto;
+import com.example.demo.dto.page.CursorPageDto;
+import com.example.demo.repository.ResourceVersion;
+import java.time.LocalDateTime;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface CategoryService {
     Page<CategoryDto> getAll(Pageable pageable);
 
+    CursorPageDto<CategoryDto> getAll(String cursor, Pageable pageable);
+
     CategoryDto getById(Long id);
 
+    LocalDateTime getLastModified(Long id);
+
+    ResourceVersion getVersion();
+
     CategoryDto save(CreateCategoryRequestDto categoryDto);
 
     CategoryDto update(Long id, CreateCategoryRequestDto categoryDto);
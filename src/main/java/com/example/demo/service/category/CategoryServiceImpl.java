@@ -1,38 +1,80 @@
 package com.example.demo.service.category;
 
+import com.example.demo.config.CacheConfig;
 import com.example.demo.dto.category.CategoryDto;
 import com.example.demo.dto.category.CreateCategoryRequestDto;
+import com.example.demo.dto.page.CursorPageDto;
 import com.example.demo.exception.EntityNotFoundException;
 import com.example.demo.mapper.CategoryMapper;
 import com.example.demo.model.Category;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.ResourceVersion;
 import com.example.demo.repository.category.CategoryRepository;
+import com.example.demo.service.pagination.KeysetCursorCodec;
+import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final KeysetCursorCodec cursorCodec;
+    private final CategoryBookIndex categoryBookIndex;
+    private final BookRepository bookRepository;
+    private final CategorySnapshot categorySnapshot;
 
     @Override
     public Page<CategoryDto> getAll(Pageable pageable) {
-        return categoryRepository.findAll(pageable).map(categoryMapper::toDto);
+        return categorySnapshot.findAll(pageable);
+    }
+
+    @Override
+    public CursorPageDto<CategoryDto> getAll(String cursor, Pageable pageable) {
+        Window<Category> window = categoryRepository.findBy(Specification.where(null),
+                query -> query
+                        .sortBy(pageable.getSort())
+                        .limit(pageable.getPageSize())
+                        .scroll(cursorCodec.decode(cursor, Category.class, pageable.getSort())));
+        return cursorCodec.toPage(window.map(categoryMapper::toDto));
     }
 
     @Override
     public CategoryDto getById(Long id) {
-        return categoryMapper.toDto(categoryRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Can't find category by id "
-                        + id)));
+        CategoryDto category = categorySnapshot.findById(id);
+        if (category == null) {
+            throw new EntityNotFoundException("Can't find category by id " + id);
+        }
+        return category;
+    }
+
+    @Override
+    public LocalDateTime getLastModified(Long id) {
+        LocalDateTime lastModified = categorySnapshot.getLastModified(id);
+        if (lastModified == null) {
+            throw new EntityNotFoundException("Can't find category by id " + id);
+        }
+        return lastModified;
+    }
+
+    @Override
+    public ResourceVersion getVersion() {
+        return categorySnapshot.getVersion();
     }
 
     @Override
     public CategoryDto save(CreateCategoryRequestDto categoryDto) {
-        Category category = categoryMapper.toEntity(categoryDto);
-        return categoryMapper.toDto(categoryRepository.save(category));
+        Category category = categoryRepository.save(categoryMapper.toEntity(categoryDto));
+        categorySnapshot.refresh();
+        return categoryMapper.toDto(category);
     }
 
     @Override
@@ -41,11 +83,23 @@ public class CategoryServiceImpl implements CategoryService {
                 () -> new EntityNotFoundException("Can't find category by id " + id));
         categoryMapper.updateCategoryFromDto(categoryDto, category);
         categoryRepository.save(category);
+        categorySnapshot.refresh();
         return categoryMapper.toDto(category);
     }
 
+    /**
+     * The category disappears from its books' category ids, so those books are touched
+     * to change their ETags and their cached views are dropped.
+     */
     @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_PAGES, allEntries = true)})
     public void deleteById(Long id) {
+        bookRepository.touchByCategoryId(id);
         categoryRepository.deleteById(id);
+        categorySnapshot.refresh();
+        categoryBookIndex.invalidate(id);
     }
 }
@@ -0,0 +1,165 @@
+package com.example.demo.service.category;
+
+import com.example.demo.config.ReplicaRoutingDataSource;
+import com.example.demo.dto.category.CategoryDto;
+import com.example.demo.mapper.CategoryMapper;
+import com.example.demo.model.Category;
+import com.example.demo.repository.ResourceVersion;
+import com.example.demo.repository.category.CategoryRepository;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Immutable in-memory copy of the categories table. Readers take the current snapshot
+ * without locking; writers build a new snapshot after their transaction commits and
+ * swap it in, and a scheduled reload picks up writes made by other instances.
+ * The returned DTOs are shared between requests and must not be modified.
+ */
+@RequiredArgsConstructor
+@Component
+public class CategorySnapshot {
+    private final CategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+    private volatile Snapshot snapshot;
+
+    public CategoryDto findById(Long id) {
+        return current().findById(id);
+    }
+
+    public LocalDateTime getLastModified(Long id) {
+        return current().getLastModified(id);
+    }
+
+    public ResourceVersion getVersion() {
+        return current().version;
+    }
+
+    public Page<CategoryDto> findAll(Pageable pageable) {
+        List<CategoryDto> view = current().sortedBy(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(view);
+        }
+        int from = (int) Math.min(pageable.getOffset(), view.size());
+        int to = Math.min(from + pageable.getPageSize(), view.size());
+        return new PageImpl<>(view.subList(from, to), pageable, view.size());
+    }
+
+    /**
+     * Reloads the snapshot once the surrounding transaction commits, or right away
+     * when there is none.
+     */
+    public void refresh() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        reload();
+                    }
+                });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${category.snapshot.refresh-interval}",
+            initialDelayString = "${category.snapshot.refresh-interval}")
+    public synchronized void reload() {
+        snapshot = new Snapshot(ReplicaRoutingDataSource.onPrimary(categoryRepository::findAll));
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private final class Snapshot {
+        private final CategoryDto[] byId;
+        private final LocalDateTime[] updatedAtById;
+        private final List<CategoryDto> sortedById;
+        private final ResourceVersion version;
+        private final Map<Sort, List<CategoryDto>> sortedViews = new ConcurrentHashMap<>();
+
+        private Snapshot(List<Category> categories) {
+            int size = categories.stream()
+                    .mapToInt(category -> Math.toIntExact(category.getId()) + 1)
+                    .max()
+                    .orElse(0);
+            byId = new CategoryDto[size];
+            updatedAtById = new LocalDateTime[size];
+            LocalDateTime lastModified = null;
+            for (Category category : categories) {
+                int index = Math.toIntExact(category.getId());
+                byId[index] = categoryMapper.toDto(category);
+                updatedAtById[index] = category.getUpdatedAt();
+                if (lastModified == null || category.getUpdatedAt().isAfter(lastModified)) {
+                    lastModified = category.getUpdatedAt();
+                }
+            }
+            sortedById = Arrays.stream(byId)
+                    .filter(Objects::nonNull)
+                    .toList();
+            version = new ResourceVersion((long) sortedById.size(), lastModified);
+        }
+
+        private CategoryDto findById(Long id) {
+            return id == null || id < 0 || id >= byId.length ? null : byId[id.intValue()];
+        }
+
+        private LocalDateTime getLastModified(Long id) {
+            return findById(id) == null ? null : updatedAtById[id.intValue()];
+        }
+
+        private List<CategoryDto> sortedBy(Sort sort) {
+            if (sort.isUnsorted()) {
+                return sortedById;
+            }
+            return sortedViews.computeIfAbsent(sort, key -> sortedById.stream()
+                    .sorted(comparator(key))
+                    .toList());
+        }
+
+        private Comparator<CategoryDto> comparator(Sort sort) {
+            Comparator<CategoryDto> comparator = null;
+            for (Sort.Order order : sort) {
+                Comparator<CategoryDto> next = switch (order.getProperty()) {
+                    case "id" -> Comparator.comparing(CategoryDto::getId);
+                    case "name" -> Comparator.comparing(CategoryDto::getName,
+                            Comparator.nullsFirst(Comparator.naturalOrder()));
+                    case "description" -> Comparator.comparing(CategoryDto::getDescription,
+                            Comparator.nullsFirst(Comparator.naturalOrder()));
+                    default -> throw new PropertyReferenceException(order.getProperty(),
+                            TypeInformation.of(Category.class), List.of());
+                };
+                if (order.isDescending()) {
+                    next = next.reversed();
+                }
+                comparator = comparator == null ? next : comparator.thenComparing(next);
+            }
+            return comparator.thenComparing(CategoryDto::getId);
+        }
+    }
+}
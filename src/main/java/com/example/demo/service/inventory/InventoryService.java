@@ -0,0 +1,21 @@
+package com.example.demo.service.inventory;
+
+import com.example.demo.dto.book.BookStockDto;
+import java.util.Map;
+
+public interface InventoryService {
+    BookStockDto getStock(Long bookId);
+
+    BookStockDto updateStock(Long bookId, int stock);
+
+    /**
+     * Takes the given quantity of every book, keyed by book id, or none of them.
+     * Must run inside the transaction that places the order, as its last write.
+     */
+    void reserve(Map<Long, Integer> quantities);
+
+    /**
+     * Puts the given quantity of every book, keyed by book id, back on stock.
+     */
+    void release(Map<Long, Integer> quantities);
+}
@@ -0,0 +1,138 @@
+package com.example.demo.service.inventory;
+
+import com.example.demo.dto.book.BookStockDto;
+import com.example.demo.exception.EntityNotFoundException;
+import com.example.demo.exception.OutOfStockException;
+import com.example.demo.repository.BookRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Stock is taken with one conditional UPDATE per book, so it can never go negative and
+ * a book row is only locked from that statement until commit. In front of the database
+ * sits a lock-free counter per book that admits a buyer only while it still shows enough
+ * stock: once a title sells out, further buyers are turned away without queueing on its
+ * row. Counters are approximate - they expire shortly after loading and are topped up
+ * again when a reservation rolls back - and the conditional UPDATE stays the authority.
+ */
+@Service
+public class InventoryServiceImpl implements InventoryService {
+    private final BookRepository bookRepository;
+    private final LoadingCache<Long, AtomicInteger> stockLevels;
+
+    public InventoryServiceImpl(BookRepository bookRepository,
+                                @Value("${inventory.stock-levels.spec}") String spec) {
+        this.bookRepository = bookRepository;
+        this.stockLevels = Caffeine.from(spec)
+                .build(bookId -> new AtomicInteger(bookRepository.findStockById(bookId)
+                        .orElse(0)));
+    }
+
+    @Override
+    public BookStockDto getStock(Long bookId) {
+        return bookRepository.findStockById(bookId)
+                .map(stock -> new BookStockDto(bookId, stock))
+                .orElseThrow(() -> new EntityNotFoundException("Can't find book by id "
+                        + bookId));
+    }
+
+    @Override
+    @Transactional
+    public BookStockDto updateStock(Long bookId, int stock) {
+        if (bookRepository.updateStock(bookId, stock) == 0) {
+            throw new EntityNotFoundException("Can't find book by id " + bookId);
+        }
+        afterCommit(() -> stockLevels.invalidate(bookId));
+        return new BookStockDto(bookId, stock);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Map<Long, Integer> quantities) {
+        Map<Long, Integer> byBookId = new TreeMap<>(quantities);
+        List<Reservation> admitted = new ArrayList<>(byBookId.size());
+        for (Map.Entry<Long, Integer> entry : byBookId.entrySet()) {
+            AtomicInteger level = stockLevels.get(entry.getKey());
+            if (!tryTake(level, entry.getValue())) {
+                admitted.forEach(Reservation::cancel);
+                throw outOfStock(entry.getKey());
+            }
+            admitted.add(new Reservation(level, entry.getValue()));
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            admitted.forEach(Reservation::cancel);
+                        }
+                    }
+                });
+        // Rows are updated in book id order so concurrent orders can't deadlock
+        for (Map.Entry<Long, Integer> entry : byBookId.entrySet()) {
+            if (bookRepository.takeStock(entry.getKey(), entry.getValue()) == 0) {
+                stockLevels.invalidate(entry.getKey());
+                throw outOfStock(entry.getKey());
+            }
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Map<Long, Integer> quantities) {
+        Map<Long, Integer> byBookId = new TreeMap<>(quantities);
+        byBookId.forEach(bookRepository::returnStock);
+        afterCommit(() -> byBookId.forEach((bookId, quantity) -> {
+            AtomicInteger level = stockLevels.getIfPresent(bookId);
+            if (level != null) {
+                level.addAndGet(quantity);
+            }
+        }));
+    }
+
+    private static boolean tryTake(AtomicInteger level, int quantity) {
+        int current;
+        do {
+            current = level.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!level.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+    }
+
+    private static OutOfStockException outOfStock(Long bookId) {
+        return new OutOfStockException("Not enough stock of book with id " + bookId);
+    }
+
+    private record Reservation(AtomicInteger level, int quantity) {
+        private void cancel() {
+            level.addAndGet(quantity);
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package com.example.demo.service.order;
 
+import com.example.demo.dto.order.OrderFilterDto;
 import com.example.demo.dto.order.OrderItemsResponseDto;
 import com.example.demo.dto.order.OrderResponseDto;
 import com.example.demo.dto.order.PlaceOrderRequestDto;
 import com.example.demo.dto.order.UpdateOrderStatusRequestDto;
-import com.example.demo.model.User;
-import java.util.List;
+import com.example.demo.dto.page.CursorPageDto;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Pageable;
 
 public interface OrderService {
-    OrderResponseDto placeOrder(User user, PlaceOrderRequestDto placeOrderRequestDto);
+    OrderResponseDto placeOrder(Long userId, PlaceOrderRequestDto placeOrderRequestDto);
 
-    List<OrderResponseDto> getAllOrders(User user);
+    CursorPageDto<OrderResponseDto> getAllOrders(Long userId, OrderFilterDto filter,
+                                                 String cursor, Pageable pageable);
+
+    void streamOrders(Long userId, OrderFilterDto filter, Consumer<OrderResponseDto> consumer);
 
     OrderResponseDto updateOrderStatus(Long id, UpdateOrderStatusRequestDto requestDto);
 
-    OrderItemsResponseDto findOrderItemByIdAndOrderId(Long orderId, Long orderItemId, User user);
+    OrderItemsResponseDto findOrderItemByIdAndOrderId(Long orderId, Long orderItemId,
+                                                      Long userId);
 
-    OrderResponseDto findOrderById(Long id, User user);
+    OrderResponseDto findOrderById(Long id, Long userId);
 }
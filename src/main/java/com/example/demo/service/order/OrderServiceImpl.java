@@ -1,92 +1,219 @@
 package com.example.demo.service.order;
 
+import com.example.demo.config.CacheConfig;
+import com.example.demo.config.ReplicaRoutingDataSource;
+import com.example.demo.dto.order.OrderFilterDto;
 import com.example.demo.dto.order.OrderItemsResponseDto;
 import com.example.demo.dto.order.OrderResponseDto;
 import com.example.demo.dto.order.PlaceOrderRequestDto;
 import com.example.demo.dto.order.UpdateOrderStatusRequestDto;
+import com.example.demo.dto.page.CursorPageDto;
 import com.example.demo.exception.DataProcessingException;
-import com.example.demo.mapper.OrderItemMapper;
 import com.example.demo.mapper.OrderMapper;
 import com.example.demo.model.CartItem;
 import com.example.demo.model.Order;
+import com.example.demo.model.OrderEvent;
 import com.example.demo.model.OrderItem;
 import com.example.demo.model.ShoppingCart;
 import com.example.demo.model.User;
+import com.example.demo.repository.cartitem.CartItemRepository;
+import com.example.demo.repository.order.OrderHistoryRow;
 import com.example.demo.repository.order.OrderItemRepository;
+import com.example.demo.repository.order.OrderItemRow;
 import com.example.demo.repository.order.OrderRepository;
+import com.example.demo.repository.order.OrderSpecifications;
 import com.example.demo.repository.shoppingcart.ShoppingCartRepository;
+import com.example.demo.service.inventory.InventoryService;
+import com.example.demo.service.order.event.OrderEventOutbox;
+import com.example.demo.service.pagination.KeysetCursorCodec;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+@Timed("service.calls")
 @RequiredArgsConstructor
 @Service
 public class OrderServiceImpl implements OrderService {
+    private static final Sort HISTORY_SORT = Sort.by(Sort.Direction.DESC, "orderDate", "id");
     private final OrderMapper orderMapper;
-    private final OrderItemMapper orderItemMapper;
     private final ShoppingCartRepository shoppingCartRepository;
     private final OrderItemRepository orderItemRepository;
     private final OrderRepository orderRepository;
+    private final CartItemRepository cartItemRepository;
+    private final KeysetCursorCodec cursorCodec;
+    private final OrderEventOutbox orderEventOutbox;
+    private final InventoryService inventoryService;
 
     @Transactional
     @Override
-    public OrderResponseDto placeOrder(User user, PlaceOrderRequestDto placeOrderRequestDto) {
+    @CacheEvict(cacheNames = CacheConfig.CARTS, key = "#userId")
+    public OrderResponseDto placeOrder(Long userId, PlaceOrderRequestDto placeOrderRequestDto) {
         ShoppingCart shoppingCart = shoppingCartRepository
-                .findByUserIdFetchCartItemsAndBooks(user.getId())
+                .findByUserIdFetchCartItemsAndBooks(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Can't find shopping cart by id "
-                        + user.getId()));
+                        + userId));
         Set<CartItem> cartItems = shoppingCart.getCartItems();
 
         if (cartItems.isEmpty()) {
             throw new DataProcessingException("Can't place order. Cart with id "
-                    + user.getId()
+                    + userId
                     + " is empty");
         }
 
-        Order order = createNewOrder(user, cartItems);
+        Order order = createNewOrder(shoppingCart.getUser(), cartItems);
         orderRepository.save(order);
-        cartItems.clear();
-        shoppingCartRepository.save(shoppingCart);
-        return orderMapper.toDto(order);
+        cartItemRepository.markDeletedByShoppingCartId(shoppingCart.getId());
+        OrderResponseDto orderDto = orderMapper.toDto(order);
+        orderEventOutbox.append(OrderEvent.Type.ORDER_PLACED, orderDto);
+        inventoryService.reserve(cartItems.stream()
+                .collect(Collectors.toMap(cartItem -> cartItem.getBook().getId(),
+                        CartItem::getQuantity, Integer::sum)));
+        return orderDto;
     }
 
+    /**
+     * Read on the primary, so an order shows up in the history as soon as it's placed.
+     */
     @Override
-    public List<OrderResponseDto> getAllOrders(User user) {
-        return orderRepository.findAllByUserId(user.getId()).stream()
-                .map(orderMapper::toDto)
-                .toList();
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderResponseDto> getAllOrders(Long userId, OrderFilterDto filter,
+                                                        String cursor, Pageable pageable) {
+        return ReplicaRoutingDataSource.onPrimary(() -> {
+            Window<Order> window = orderRepository.findBy(
+                    OrderSpecifications.matching(userId, filter), query -> query
+                            .sortBy(HISTORY_SORT)
+                            .limit(pageable.getPageSize())
+                            .scroll(cursorCodec.decode(cursor, Order.class, HISTORY_SORT)));
+            Map<Long, Set<OrderItemsResponseDto>> items = findItems(window.stream()
+                    .map(Order::getId)
+                    .toList());
+            return cursorCodec.toPage(window.map(order -> orderMapper.toDto(order,
+                    items.getOrDefault(order.getId(), Set.of()))));
+        });
     }
 
+    /**
+     * Reads the history as one streamed query of order/item rows and hands each order
+     * to the consumer as soon as its last row is read, so only one order is held at a time.
+     * Read on the primary, like {@link #getAllOrders}.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public void streamOrders(Long userId, OrderFilterDto filter,
+                             Consumer<OrderResponseDto> consumer) {
+        ReplicaRoutingDataSource.runOnPrimary(() -> {
+            try (Stream<OrderHistoryRow> rows = orderRepository.streamHistory(userId,
+                    filter.from(), filter.to(), filter.status())) {
+                groupOrders(rows.iterator(), userId, consumer);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
     public OrderResponseDto updateOrderStatus(Long id, UpdateOrderStatusRequestDto requestDto) {
         Order order = orderRepository.findById(id).orElseThrow(()
                 -> new EntityNotFoundException("Can't find order by id " + id));
+        final boolean wasCanceled = order.getStatus() == Order.Status.CANCELED;
         order.setStatus(requestDto.status());
         orderRepository.save(order);
-        return orderMapper.toDto(order);
+        Set<OrderItemsResponseDto> items = findItems(List.of(id)).getOrDefault(id, Set.of());
+        OrderResponseDto orderDto = orderMapper.toDto(order, items);
+        orderEventOutbox.append(OrderEvent.Type.ORDER_STATUS_CHANGED, orderDto);
+        boolean isCanceled = order.getStatus() == Order.Status.CANCELED;
+        if (isCanceled != wasCanceled) {
+            Map<Long, Integer> quantities = items.stream()
+                    .collect(Collectors.toMap(OrderItemsResponseDto::bookId,
+                            OrderItemsResponseDto::quantity, Integer::sum));
+            if (isCanceled) {
+                inventoryService.release(quantities);
+            } else {
+                inventoryService.reserve(quantities);
+            }
+        }
+        return orderDto;
     }
 
     @Override
     public OrderItemsResponseDto findOrderItemByIdAndOrderId(Long orderId, Long orderItemId,
-                                                             User user) {
-        OrderItem orderItem = orderItemRepository
-                .findByIdAndOrderId(orderId, orderItemId, user.getId())
+                                                             Long userId) {
+        return orderItemRepository
+                .findByIdAndOrderId(orderId, orderItemId, userId)
                 .orElseThrow(() -> new EntityNotFoundException("Can't find order with id "
                         + orderId + " and order item id "
                         + orderItemId));
-        return orderItemMapper.toDto(orderItem);
     }
 
     @Override
-    public OrderResponseDto findOrderById(Long id, User user) {
-        Order order = orderRepository.findByIdAndUserId(id, user.getId()).orElseThrow(
-                () -> new EntityNotFoundException("Can't find order by id: " + id));
-        return orderMapper.toDto(order);
+    public OrderResponseDto findOrderById(Long id, Long userId) {
+        List<OrderResponseDto> orders = new ArrayList<>(1);
+        groupOrders(orderRepository.findHistoryRows(id, userId).iterator(), userId,
+                orders::add);
+        if (orders.isEmpty()) {
+            throw new EntityNotFoundException("Can't find order by id: " + id);
+        }
+        return orders.get(0);
+    }
+
+    /**
+     * Folds consecutive order/item rows into orders, emitting each order as soon as
+     * the rows move on to the next one.
+     */
+    private void groupOrders(Iterator<OrderHistoryRow> rows, Long userId,
+                             Consumer<OrderResponseDto> consumer) {
+        OrderHistoryRow current = null;
+        Set<OrderItemsResponseDto> items = new LinkedHashSet<>();
+        while (rows.hasNext()) {
+            OrderHistoryRow row = rows.next();
+            if (current != null && !current.orderId().equals(row.orderId())) {
+                consumer.accept(toDto(userId, current, items));
+                items = new LinkedHashSet<>();
+            }
+            current = row;
+            if (row.itemId() != null) {
+                items.add(new OrderItemsResponseDto(row.itemId(), row.bookId(),
+                        row.quantity()));
+            }
+        }
+        if (current != null) {
+            consumer.accept(toDto(userId, current, items));
+        }
+    }
+
+    private Map<Long, Set<OrderItemsResponseDto>> findItems(Collection<Long> orderIds) {
+        Map<Long, Set<OrderItemsResponseDto>> items = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return items;
+        }
+        for (OrderItemRow row : orderItemRepository.findRowsByOrderIds(orderIds)) {
+            items.computeIfAbsent(row.orderId(), orderId -> new LinkedHashSet<>())
+                    .add(new OrderItemsResponseDto(row.itemId(), row.bookId(), row.quantity()));
+        }
+        return items;
+    }
+
+    private OrderResponseDto toDto(Long userId, OrderHistoryRow order,
+                                   Set<OrderItemsResponseDto> items) {
+        return new OrderResponseDto(order.orderId(), userId, items, order.orderDate(),
+                order.totalPrice(), order.status());
     }
 
     private BigDecimal calculateOrderTotalPrice(Set<OrderItem> orderItems) {
@@ -0,0 +1,15 @@
+package com.example.demo.service.order.event;
+
+import com.example.demo.model.OrderEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class LoggingOrderEventHandler implements OrderEventHandler {
+    @Override
+    public void handle(OrderEvent event) {
+        log.info("Order event {} {} for order {}: {}", event.getId(), event.getType(),
+                event.getOrderId(), event.getPayload());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.demo.service.order.event;
+
+import com.example.demo.model.OrderEvent;
+import com.example.demo.repository.order.OrderEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drains the order event outbox in batches. A batch is locked and claimed in one short
+ * transaction, handed to every {@link OrderEventHandler} outside of any transaction, and
+ * its outcome recorded in another, so slow handlers never hold row locks or a
+ * connection. A failed event is retried with exponential backoff until it runs out of
+ * attempts; delivered events are purged once they're older than the retention.
+ */
+@Slf4j
+@Component
+public class OrderEventDispatcher {
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private final OrderEventRepository orderEventRepository;
+    private final List<OrderEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+    private final Duration retention;
+
+    public OrderEventDispatcher(OrderEventRepository orderEventRepository,
+                                List<OrderEventHandler> handlers,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${order.events.batch-size}") int batchSize,
+                                @Value("${order.events.max-attempts}") int maxAttempts,
+                                @Value("${order.events.initial-backoff}") Duration initialBackoff,
+                                @Value("${order.events.max-backoff}") Duration maxBackoff,
+                                @Value("${order.events.claim-timeout}") Duration claimTimeout,
+                                @Value("${order.events.retention}") Duration retention) {
+        this.orderEventRepository = orderEventRepository;
+        this.handlers = handlers;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${order.events.dispatch-interval}")
+    public void dispatch() {
+        List<OrderEvent> events;
+        do {
+            events = claimBatch();
+            List<OrderEvent> delivered = new ArrayList<>(events.size());
+            List<FailedEvent> failed = new ArrayList<>();
+            for (OrderEvent event : events) {
+                Exception error = deliver(event);
+                if (error == null) {
+                    delivered.add(event);
+                } else {
+                    failed.add(new FailedEvent(event, error));
+                }
+            }
+            record(delivered, failed);
+        } while (events.size() == batchSize);
+    }
+
+    /**
+     * Deletes delivered events older than the retention, a batch per transaction.
+     */
+    @Scheduled(fixedDelayString = "${order.events.purge-interval}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        Integer deleted;
+        long total = 0;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    orderEventRepository.deleteDeliveredBefore(before, batchSize));
+            total += deleted == null ? 0 : deleted;
+        } while (deleted != null && deleted == batchSize);
+        if (total > 0) {
+            log.info("Purged {} order events delivered before {}", total, before);
+        }
+    }
+
+    private List<OrderEvent> claimBatch() {
+        return Objects.requireNonNull(transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OrderEvent> events = orderEventRepository.lockDueEvents(now, batchSize);
+            if (!events.isEmpty()) {
+                orderEventRepository.claim(events.stream().map(OrderEvent::getId).toList(),
+                        now.plus(claimTimeout));
+            }
+            return events;
+        }));
+    }
+
+    private Exception deliver(OrderEvent event) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            for (OrderEventHandler handler : handlers) {
+                handler.handle(event);
+            }
+        } catch (Exception e) {
+            sample.stop(dispatchTimer(event, event.getAttempts() + 1 >= maxAttempts
+                    ? "failed"
+                    : "retried"));
+            return e;
+        }
+        sample.stop(dispatchTimer(event, "delivered"));
+        return null;
+    }
+
+    private void record(List<OrderEvent> delivered, List<FailedEvent> failed) {
+        if (delivered.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                orderEventRepository.markDelivered(delivered.stream()
+                        .map(OrderEvent::getId)
+                        .toList(), now);
+            }
+            failed.forEach(failure -> fail(failure.event(), failure.error(), now));
+        });
+        for (OrderEvent event : delivered) {
+            meterRegistry.timer("order.events.lag", "type", event.getType().name())
+                    .record(Duration.between(event.getCreatedAt(), now));
+        }
+    }
+
+    private void fail(OrderEvent event, Exception e, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        String error = String.valueOf(e);
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        if (attempts >= maxAttempts) {
+            orderEventRepository.markFailed(event.getId(), attempts, error);
+            log.error("Giving up on order event {} after {} attempts", event.getId(),
+                    attempts, e);
+            return;
+        }
+        orderEventRepository.scheduleRetry(event.getId(), attempts,
+                now.plus(backoff(attempts)), error);
+        log.warn("Order event {} failed, attempt {} of {}", event.getId(), attempts,
+                maxAttempts, e);
+    }
+
+    private Timer dispatchTimer(OrderEvent event, String outcome) {
+        return meterRegistry.timer("order.events.dispatch",
+                "type", event.getType().name(), "outcome", outcome);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private record FailedEvent(OrderEvent event, Exception error) {
+    }
+}
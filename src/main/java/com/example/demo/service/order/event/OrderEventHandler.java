@@ -0,0 +1,13 @@
+package com.example.demo.service.order.event;
+
+import com.example.demo.model.OrderEvent;
+
+/**
+ * Receives order events from the outbox dispatcher, off the request thread.
+ * Delivery is at least once: an event is handed to every handler again when any
+ * handler fails or the dispatcher dies before recording the delivery, so handlers
+ * must be idempotent.
+ */
+public interface OrderEventHandler {
+    void handle(OrderEvent event) throws Exception;
+}
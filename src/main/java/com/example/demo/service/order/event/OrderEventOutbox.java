@@ -0,0 +1,40 @@
+package com.example.demo.service.order.event;
+
+import com.example.demo.dto.order.OrderResponseDto;
+import com.example.demo.exception.DataProcessingException;
+import com.example.demo.model.OrderEvent;
+import com.example.demo.repository.order.OrderEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records order events in the caller's transaction, so an event exists exactly when
+ * the order change it describes was committed.
+ */
+@RequiredArgsConstructor
+@Component
+public class OrderEventOutbox {
+    private final OrderEventRepository orderEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OrderEvent.Type type, OrderResponseDto order) {
+        OrderEvent event = new OrderEvent();
+        event.setOrderId(order.id());
+        event.setType(type);
+        event.setPayload(toJson(order));
+        orderEventRepository.save(event);
+    }
+
+    private String toJson(OrderResponseDto order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new DataProcessingException("Can't serialize order " + order.id(), e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.service.pagination;
+
+import com.example.demo.dto.page.CursorPageDto;
+import com.example.demo.exception.InvalidCursorException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Turns keyset scroll positions into opaque URL-safe cursors and back. Key values are
+ * stored as strings and converted to the entity property types when the cursor is read.
+ */
+@RequiredArgsConstructor
+@Component
+public class KeysetCursorCodec {
+    private static final TypeReference<Map<String, String>> KEYS_TYPE = new TypeReference<>() {
+    };
+    private final ConversionService conversionService = createConversionService();
+    private final ObjectMapper objectMapper;
+
+    public <T> CursorPageDto<T> toPage(Window<T> window) {
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? encode(window.positionAt(window.size() - 1))
+                : null;
+        return new CursorPageDto<>(window.getContent(), window.size(), nextCursor);
+    }
+
+    public KeysetScrollPosition decode(String cursor, Class<?> entityType, Sort sort) {
+        if (!StringUtils.hasText(cursor)) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, String> keys = readKeys(cursor);
+        for (Sort.Order order : sort) {
+            if (!keys.containsKey(order.getProperty())) {
+                throw new InvalidCursorException("Cursor doesn't match sort by "
+                        + order.getProperty());
+            }
+        }
+        Map<String, Object> typedKeys = new LinkedHashMap<>();
+        keys.forEach((property, value) ->
+                typedKeys.put(property, convert(entityType, property, value)));
+        return ScrollPosition.forward(typedKeys);
+    }
+
+    private String encode(ScrollPosition position) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        ((KeysetScrollPosition) position).getKeys().forEach((property, value) ->
+                keys.put(property, String.valueOf(value)));
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(keys));
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't encode cursor " + keys, e);
+        }
+    }
+
+    private Map<String, String> readKeys(String cursor) {
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor " + cursor);
+        }
+    }
+
+    private static ConversionService createConversionService() {
+        DefaultConversionService conversionService = new DefaultConversionService();
+        conversionService.addConverter(String.class, LocalDateTime.class, LocalDateTime::parse);
+        return conversionService;
+    }
+
+    private Object convert(Class<?> entityType, String property, String value) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(entityType, property);
+        if (descriptor == null) {
+            throw new InvalidCursorException("Invalid cursor property " + property);
+        }
+        try {
+            return conversionService.convert(value, descriptor.getPropertyType());
+        } catch (ConversionException e) {
+            throw new InvalidCursorException("Invalid cursor value for " + property);
+        }
+    }
+}
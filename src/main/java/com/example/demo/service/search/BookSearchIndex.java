@@ -0,0 +1,350 @@
+package com.example.demo.service.search;
+
+import com.example.demo.model.Book;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.book.BookSearchView;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index over book title, author, isbn and description.
+ * Each term maps to the books containing it with a field-weighted term frequency;
+ * results match all query terms and are ranked by tf-idf.
+ *
+ * <p>Books read from the database live in an immutable {@link SearchSegment} that
+ * {@link #rebuild()} builds aside and swaps in whole, so searches never see a partial
+ * index. Books indexed or removed since are kept as pending documents that override
+ * the segment, until the number of them reaches the compaction threshold and the
+ * segment is rebuilt. The first segment is built before the server takes requests.
+ */
+@RequiredArgsConstructor
+@Component
+public class BookSearchIndex implements SmartInitializingSingleton {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ISBN_SEPARATOR = Pattern.compile("[^0-9xX]");
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float AUTHOR_WEIGHT = 2f;
+    private static final float ISBN_WEIGHT = 5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final int REBUILD_BATCH_SIZE = 5000;
+    private static final Comparator<ScoredBook> BY_RELEVANCE = Comparator
+            .comparingDouble(ScoredBook::score)
+            .thenComparing(Comparator.comparingLong(ScoredBook::id).reversed());
+    private final Map<Long, PendingDocument> pending = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private final BookRepository bookRepository;
+    private SearchSegment segment = SearchSegment.EMPTY;
+    private BitSet superseded = new BitSet();
+    private long sequence;
+    @Value("${search.index.compaction-threshold}")
+    private int compactionThreshold;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Builds a new segment from the database without blocking searches or updates and
+     * swaps it in. Pending documents from before the build started are in the rows it
+     * read and are dropped; later ones may be newer than those rows and stay pending.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            final long startedAt = currentSequence();
+            SearchSegment.Builder builder = new SearchSegment.Builder();
+            long lastId = 0;
+            List<BookSearchView> batch;
+            do {
+                batch = bookRepository.findSearchViewsAfter(lastId,
+                        PageRequest.ofSize(REBUILD_BATCH_SIZE));
+                for (BookSearchView book : batch) {
+                    builder.add(book.getId(), termWeights(book.getTitle(), book.getAuthor(),
+                            book.getIsbn(), book.getDescription()));
+                    lastId = book.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            SearchSegment rebuilt = builder.build();
+            lock.writeLock().lock();
+            try {
+                pending.values().removeIf(document -> document.sequence() <= startedAt);
+                segment = rebuilt;
+                superseded = new BitSet(rebuilt.size());
+                pending.keySet().forEach(this::supersede);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.compaction-interval}")
+    public void compact() {
+        int pendingDocuments;
+        lock.readLock().lock();
+        try {
+            pendingDocuments = pending.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (pendingDocuments >= compactionThreshold) {
+            rebuild();
+        }
+    }
+
+    public void index(Book book) {
+        index(book.getId(), book.getTitle(), book.getAuthor(),
+                book.getIsbn(), book.getDescription());
+    }
+
+    public void index(Long id, String title, String author, String isbn, String description) {
+        putPending(id, termWeights(title, author, isbn, description));
+    }
+
+    public void remove(Long id) {
+        putPending(id, Map.of());
+    }
+
+    public SearchHits search(String query, long offset, int limit) {
+        List<String> terms = List.copyOf(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return new SearchHits(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            int livePending = (int) pending.values().stream()
+                    .filter(document -> !document.weights().isEmpty())
+                    .count();
+            int documents = segment.size() - superseded.cardinality() + livePending;
+            int[] starts = new int[terms.size()];
+            int[] ends = new int[terms.size()];
+            float[] idfs = new float[terms.size()];
+            for (int i = 0; i < terms.size(); i++) {
+                int term = segment.term(terms.get(i));
+                starts[i] = term < 0 ? 0 : segment.termStart(term);
+                ends[i] = term < 0 ? 0 : segment.termEnd(term);
+                int frequency = ends[i] - starts[i] + pendingFrequency(terms.get(i));
+                if (frequency == 0) {
+                    return new SearchHits(List.of(), 0);
+                }
+                idfs[i] = (float) Math.log(1 + (double) documents / frequency);
+            }
+            TopBooks top = new TopBooks(offset + limit);
+            long total = rankSegment(starts, ends, idfs, top) + rankPending(terms, idfs, top);
+            return new SearchHits(top.ids(offset), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walks the shortest posting list and seeks every other one forward to the same book,
+     * so a query costs about the length of its rarest term.
+     */
+    private long rankSegment(int[] starts, int[] ends, float[] idfs, TopBooks top) {
+        int lead = 0;
+        for (int i = 1; i < starts.length; i++) {
+            if (ends[i] - starts[i] < ends[lead] - starts[lead]) {
+                lead = i;
+            }
+        }
+        int[] docs = segment.docs();
+        float[] weights = segment.weights();
+        int[] cursors = starts.clone();
+        long total = 0;
+        candidates:
+        for (int posting = starts[lead]; posting < ends[lead]; posting++) {
+            int doc = docs[posting];
+            if (superseded.get(doc)) {
+                continue;
+            }
+            float score = weights[posting] * idfs[lead];
+            for (int i = 0; i < starts.length; i++) {
+                if (i == lead) {
+                    continue;
+                }
+                cursors[i] = seek(docs, cursors[i], ends[i], doc);
+                if (cursors[i] == ends[i]) {
+                    break candidates;
+                }
+                if (docs[cursors[i]] != doc) {
+                    continue candidates;
+                }
+                score += weights[cursors[i]] * idfs[i];
+            }
+            total++;
+            top.offer(segment.bookId(doc), score);
+        }
+        return total;
+    }
+
+    private long rankPending(List<String> terms, float[] idfs, TopBooks top) {
+        long total = 0;
+        candidates:
+        for (Map.Entry<Long, PendingDocument> document : pending.entrySet()) {
+            Map<String, Float> weights = document.getValue().weights();
+            float score = 0;
+            for (int i = 0; i < terms.size(); i++) {
+                Float weight = weights.get(terms.get(i));
+                if (weight == null) {
+                    continue candidates;
+                }
+                score += weight * idfs[i];
+            }
+            total++;
+            top.offer(document.getKey(), score);
+        }
+        return total;
+    }
+
+    private int pendingFrequency(String term) {
+        int frequency = 0;
+        for (PendingDocument document : pending.values()) {
+            if (document.weights().containsKey(term)) {
+                frequency++;
+            }
+        }
+        return frequency;
+    }
+
+    /**
+     * Returns the first posting from {@code from} on whose book number is at least
+     * {@code doc}, or {@code to}, probing exponentially growing steps before a binary search.
+     */
+    private static int seek(int[] docs, int from, int to, int doc) {
+        if (from >= to || docs[from] >= doc) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        while (low + step < to && docs[low + step] < doc) {
+            low += step;
+            step <<= 1;
+        }
+        int index = Arrays.binarySearch(docs, low + 1, Math.min(low + step, to), doc);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private void putPending(Long id, Map<String, Float> weights) {
+        lock.writeLock().lock();
+        try {
+            pending.put(id, new PendingDocument(++sequence, weights));
+            supersede(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void supersede(Long id) {
+        int doc = segment.doc(id);
+        if (doc >= 0) {
+            superseded.set(doc);
+        }
+    }
+
+    private long currentSequence() {
+        lock.readLock().lock();
+        try {
+            return sequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Float> termWeights(String title, String author, String isbn,
+                                           String description) {
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, title, TITLE_WEIGHT);
+        addTerms(weights, author, AUTHOR_WEIGHT);
+        addTerms(weights, isbn, ISBN_WEIGHT);
+        addTerms(weights, isbn == null ? null : ISBN_SEPARATOR.matcher(isbn).replaceAll(""),
+                ISBN_WEIGHT);
+        addTerms(weights, description, DESCRIPTION_WEIGHT);
+        return weights;
+    }
+
+    private void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    private List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    public record SearchHits(List<Long> ids, long total) {
+    }
+
+    private record PendingDocument(long sequence, Map<String, Float> weights) {
+    }
+
+    private record ScoredBook(long id, float score) {
+    }
+
+    /**
+     * Keeps the best {@code capacity} books seen; a book only costs an allocation when
+     * it makes it into the heap.
+     */
+    private static final class TopBooks {
+        private final long capacity;
+        private final PriorityQueue<ScoredBook> heap = new PriorityQueue<>(BY_RELEVANCE);
+
+        private TopBooks(long capacity) {
+            this.capacity = capacity;
+        }
+
+        private void offer(long id, float score) {
+            if (heap.size() < capacity) {
+                heap.add(new ScoredBook(id, score));
+                return;
+            }
+            ScoredBook lowest = heap.peek();
+            if (lowest != null && (score > lowest.score()
+                    || score == lowest.score() && id < lowest.id())) {
+                heap.poll();
+                heap.add(new ScoredBook(id, score));
+            }
+        }
+
+        private List<Long> ids(long offset) {
+            List<ScoredBook> ranked = new ArrayList<>(heap);
+            ranked.sort(BY_RELEVANCE.reversed());
+            return ranked.stream()
+                    .skip(offset)
+                    .map(ScoredBook::id)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.service.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable inverted index over a set of books, laid out in primitive arrays.
+ * Books are numbered in ascending id order; the postings of term {@code t} are the
+ * entries {@code termStarts[t]} until {@code termStarts[t + 1]} of {@code docs} and
+ * {@code weights}, in ascending book number order, and terms are sorted for lookup.
+ */
+final class SearchSegment {
+    static final SearchSegment EMPTY = new Builder().build();
+    private final long[] bookIds;
+    private final String[] terms;
+    private final int[] termStarts;
+    private final int[] docs;
+    private final float[] weights;
+
+    private SearchSegment(long[] bookIds, String[] terms, int[] termStarts,
+                          int[] docs, float[] weights) {
+        this.bookIds = bookIds;
+        this.terms = terms;
+        this.termStarts = termStarts;
+        this.docs = docs;
+        this.weights = weights;
+    }
+
+    int size() {
+        return bookIds.length;
+    }
+
+    long bookId(int doc) {
+        return bookIds[doc];
+    }
+
+    int[] docs() {
+        return docs;
+    }
+
+    float[] weights() {
+        return weights;
+    }
+
+    int termStart(int term) {
+        return termStarts[term];
+    }
+
+    int termEnd(int term) {
+        return termStarts[term + 1];
+    }
+
+    /**
+     * Returns the number of the book, or a negative value when it isn't in this segment.
+     */
+    int doc(long bookId) {
+        return Arrays.binarySearch(bookIds, bookId);
+    }
+
+    /**
+     * Returns the number of the term, or a negative value when no book contains it.
+     */
+    int term(String term) {
+        return Arrays.binarySearch(terms, term);
+    }
+
+    static final class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private long[] bookIds = new long[INITIAL_CAPACITY];
+        private int size;
+
+        void add(long bookId, Map<String, Float> termWeights) {
+            if (size > 0 && bookId <= bookIds[size - 1]) {
+                throw new IllegalArgumentException("Books must be added in ascending id order, "
+                        + bookId + " after " + bookIds[size - 1]);
+            }
+            if (size == bookIds.length) {
+                bookIds = Arrays.copyOf(bookIds, size * 2);
+            }
+            int doc = size++;
+            bookIds[doc] = bookId;
+            termWeights.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, key -> new PostingList()).add(doc, weight));
+        }
+
+        SearchSegment build() {
+            String[] terms = postings.keySet().toArray(String[]::new);
+            Arrays.sort(terms);
+            int[] termStarts = new int[terms.length + 1];
+            for (int term = 0; term < terms.length; term++) {
+                termStarts[term + 1] = termStarts[term] + postings.get(terms[term]).size;
+            }
+            int[] docs = new int[termStarts[terms.length]];
+            float[] weights = new float[docs.length];
+            for (int term = 0; term < terms.length; term++) {
+                PostingList list = postings.remove(terms[term]);
+                System.arraycopy(list.docs, 0, docs, termStarts[term], list.size);
+                System.arraycopy(list.weights, 0, weights, termStarts[term], list.size);
+            }
+            return new SearchSegment(Arrays.copyOf(bookIds, size), terms, termStarts,
+                    docs, weights);
+        }
+    }
+
+    private static final class PostingList {
+        private int[] docs = new int[1];
+        private float[] weights = new float[1];
+        private int size;
+
+        private void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.service.shoppingcart;
+
+import com.example.demo.config.CacheConfig;
+import com.example.demo.dto.cartitem.CartItemResponseDto;
+import com.example.demo.dto.shoppingcart.ShoppingCartResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The per-user cart views of the {@link CacheConfig#CARTS} cache, patched after a cart
+ * edit commits instead of rebuilt with the cart query. Patches set absolute values, so
+ * applying one to a view that already has the edit is harmless. When edits of one user
+ * overlap, their patches could land in a different order than their commits, so each of
+ * them evicts the view instead and the next read rebuilds it.
+ */
+@RequiredArgsConstructor
+@Component
+class CartViews {
+    private final ConcurrentMap<Long, Edits> edits = new ConcurrentHashMap<>();
+    private final CacheManager cacheManager;
+
+    /**
+     * Returns the cached view with the item added or replaced, or {@code null} when the
+     * user's cart isn't cached.
+     */
+    ShoppingCartResponseDto putItem(Long userId, CartItemResponseDto item) {
+        return patchAfterCommit(userId, view -> withItem(view, item));
+    }
+
+    /**
+     * Returns the cached view with the item's quantity changed, or {@code null} when the
+     * user's cart isn't cached or the cached view doesn't have the item.
+     */
+    ShoppingCartResponseDto setQuantity(Long userId, Long itemId, int quantity) {
+        return patchAfterCommit(userId, view -> view.cartItems().stream()
+                .filter(item -> item.getCartItemId().equals(itemId))
+                .findFirst()
+                .map(item -> withItem(view, new CartItemResponseDto(itemId, item.getBookId(),
+                        item.getBookTitle(), quantity)))
+                .orElse(null));
+    }
+
+    /**
+     * Returns the cached view without the item, or {@code null} when the user's cart
+     * isn't cached.
+     */
+    ShoppingCartResponseDto removeItem(Long userId, Long itemId) {
+        return patchAfterCommit(userId, view -> withoutItem(view, itemId));
+    }
+
+    /**
+     * Patches the view once the current transaction commits and returns the patched
+     * copy of the view as cached now; a patch returning {@code null} evicts the view.
+     */
+    private ShoppingCartResponseDto patchAfterCommit(
+            Long userId, UnaryOperator<ShoppingCartResponseDto> patch) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            views().invalidate(userId);
+            return null;
+        }
+        edits.compute(userId, (id, current) -> current == null ? new Edits() : current.join());
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        edits.computeIfPresent(userId, (id, current) -> {
+                            if (status == STATUS_COMMITTED) {
+                                applyOrEvict(userId, current.overlapped ? null : patch);
+                            }
+                            return current.leave();
+                        });
+                    }
+                });
+        Object view = views().getIfPresent(userId);
+        return view == null ? null : patch.apply((ShoppingCartResponseDto) view);
+    }
+
+    private void applyOrEvict(Long userId, UnaryOperator<ShoppingCartResponseDto> patch) {
+        if (patch == null) {
+            views().invalidate(userId);
+            return;
+        }
+        views().asMap().computeIfPresent(userId,
+                (id, view) -> patch.apply((ShoppingCartResponseDto) view));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> views() {
+        return (Cache<Object, Object>) Objects.requireNonNull(
+                cacheManager.getCache(CacheConfig.CARTS)).getNativeCache();
+    }
+
+    private static ShoppingCartResponseDto withItem(ShoppingCartResponseDto view,
+                                                    CartItemResponseDto item) {
+        Set<CartItemResponseDto> items = new HashSet<>(
+                withoutItem(view, item.getCartItemId()).cartItems());
+        items.add(item);
+        return new ShoppingCartResponseDto(view.userId(), items);
+    }
+
+    private static ShoppingCartResponseDto withoutItem(ShoppingCartResponseDto view,
+                                                       Long itemId) {
+        Set<CartItemResponseDto> items = new HashSet<>();
+        for (CartItemResponseDto item : view.cartItems()) {
+            if (!item.getCartItemId().equals(itemId)) {
+                items.add(item);
+            }
+        }
+        return new ShoppingCartResponseDto(view.userId(), items);
+    }
+
+    /**
+     * The edits of one user whose transactions haven't completed yet, and whether any
+     * of them overlapped.
+     */
+    private static final class Edits {
+        private int pending = 1;
+        private boolean overlapped;
+
+        private Edits join() {
+            pending++;
+            overlapped = true;
+            return this;
+        }
+
+        private Edits leave() {
+            pending--;
+            return pending == 0 ? null : this;
+        }
+    }
+}
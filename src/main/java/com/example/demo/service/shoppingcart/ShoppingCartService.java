@@ -1,6 +1,7 @@
 package com.example.demo.service.shoppingcart;
 
 import com.example.demo.dto.cartitem.CartItemRequestDto;
+import com.example.demo.dto.cartitem.CartItemResponseDto;
 import com.example.demo.dto.cartitem.UpdateCartItemRequestDto;
 import com.example.demo.dto.shoppingcart.ShoppingCartResponseDto;
 import com.example.demo.model.User;
@@ -8,13 +9,13 @@ import com.example.demo.model.User;
 public interface ShoppingCartService {
     void registerNewShoppingCart(User user);
 
-    ShoppingCartResponseDto addBookToShoppingCart(User user, CartItemRequestDto cartItem);
+    CartItemResponseDto addBookToShoppingCart(Long userId, CartItemRequestDto cartItem);
 
-    ShoppingCartResponseDto getShoppingCart(User user);
+    ShoppingCartResponseDto getShoppingCart(Long userId);
 
     ShoppingCartResponseDto updateShoppingCart(Long itemId,
-                                               User user,
+                                               Long userId,
                                                UpdateCartItemRequestDto cartItemDto);
 
-    ShoppingCartResponseDto removeItemFromShoppingCart(User user, Long itemId);
+    ShoppingCartResponseDto removeItemFromShoppingCart(Long userId, Long itemId);
 }
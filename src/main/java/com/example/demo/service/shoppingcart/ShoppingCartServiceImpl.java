@@ -1,28 +1,41 @@
 package com.example.demo.service.shoppingcart;
 
+import com.example.demo.config.CacheConfig;
+import com.example.demo.config.ReplicaRoutingDataSource;
 import com.example.demo.dto.cartitem.CartItemRequestDto;
+import com.example.demo.dto.cartitem.CartItemResponseDto;
 import com.example.demo.dto.cartitem.UpdateCartItemRequestDto;
 import com.example.demo.dto.shoppingcart.ShoppingCartResponseDto;
-import com.example.demo.mapper.ShoppingCartMapper;
-import com.example.demo.model.Book;
 import com.example.demo.model.CartItem;
 import com.example.demo.model.ShoppingCart;
 import com.example.demo.model.User;
 import com.example.demo.repository.BookRepository;
 import com.example.demo.repository.cartitem.CartItemRepository;
+import com.example.demo.repository.shoppingcart.CartItemRow;
 import com.example.demo.repository.shoppingcart.ShoppingCartRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+@Timed("service.calls")
 @RequiredArgsConstructor
 @Service
 public class ShoppingCartServiceImpl implements ShoppingCartService {
+    private static final int MAX_ADD_ATTEMPTS = 5;
     private final CartItemRepository cartItemRepository;
     private final BookRepository bookRepository;
     private final ShoppingCartRepository shoppingCartRepository;
-    private final ShoppingCartMapper shoppingCartMapper;
+    private final CartViews cartViews;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public void registerNewShoppingCart(User user) {
@@ -31,59 +44,92 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
         shoppingCartRepository.save(shoppingCart);
     }
 
+    /**
+     * Concurrent first adds of the same book can deadlock on the gap locks the upsert
+     * takes on the unique (cart, book) index. MySQL rolls the losing transaction back
+     * whole, so the add is retried as a whole, in a new transaction.
+     */
     @Override
-    @Transactional
-    public ShoppingCartResponseDto addBookToShoppingCart(User user, CartItemRequestDto cartItem) {
-        Book bookFromDb = bookRepository.findById(cartItem.bookId()).orElseThrow(() ->
-                new EntityNotFoundException("Can't find book by id " + cartItem.bookId()));
-        ShoppingCart shoppingCart = findShoppingCart(user.getId());
-        shoppingCart.getCartItems().stream()
-                .filter(item -> item.getBook().getId().equals(cartItem.bookId()))
-                .findFirst()
-                .ifPresentOrElse(item ->
-                                item.setQuantity(item.getQuantity() + cartItem.quantity()),
-                        () ->
-                                addCartItem(shoppingCart, bookFromDb, cartItem.quantity()));
-        shoppingCartRepository.save(shoppingCart);
-        return shoppingCartMapper.toDto(shoppingCart);
+    public CartItemResponseDto addBookToShoppingCart(Long userId, CartItemRequestDto cartItem) {
+        PessimisticLockingFailureException lastFailure = null;
+        for (int attempt = 0; attempt < MAX_ADD_ATTEMPTS; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> addBook(userId, cartItem));
+            } catch (PessimisticLockingFailureException e) {
+                lastFailure = e;
+            }
+        }
+        throw lastFailure;
     }
 
     @Override
     @Transactional
-    public ShoppingCartResponseDto getShoppingCart(User user) {
-        return shoppingCartMapper.toDto(findShoppingCart(user.getId()));
+    @Cacheable(cacheNames = CacheConfig.CARTS, key = "#userId")
+    public ShoppingCartResponseDto getShoppingCart(Long userId) {
+        return findShoppingCart(userId);
     }
 
+    /**
+     * Answers from the cached cart view with the edit applied, so only a cold cart
+     * costs the cart query; the view itself is patched once the edit commits.
+     */
     @Override
     @Transactional
-    public ShoppingCartResponseDto updateShoppingCart(Long itemId, User user,
+    public ShoppingCartResponseDto updateShoppingCart(Long itemId, Long userId,
                                                       UpdateCartItemRequestDto cartItemDto) {
-        CartItem cartItem = cartItemRepository.findByIdAndShoppingCartId(itemId, user.getId())
+        CartItem cartItem = cartItemRepository.findByIdAndShoppingCartId(itemId, userId)
                 .orElseThrow(() ->
                         new EntityNotFoundException("Can't find item by id " + itemId));
         cartItem.setQuantity(cartItemDto.quantity());
         cartItemRepository.save(cartItem);
-        return shoppingCartMapper.toDto(findShoppingCart(user.getId()));
+        ShoppingCartResponseDto cart = cartViews.setQuantity(userId, itemId,
+                cartItemDto.quantity());
+        return cart != null ? cart : findShoppingCart(userId);
     }
 
     @Override
     @Transactional
-    public ShoppingCartResponseDto removeItemFromShoppingCart(User user, Long itemId) {
-        cartItemRepository.deleteCartItemByIdAndShoppingCartId(itemId, user.getId());
-        return shoppingCartMapper.toDto(findShoppingCart(user.getId()));
+    public ShoppingCartResponseDto removeItemFromShoppingCart(Long userId, Long itemId) {
+        cartItemRepository.deleteCartItemByIdAndShoppingCartId(itemId, userId);
+        ShoppingCartResponseDto cart = cartViews.removeItem(userId, itemId);
+        return cart != null ? cart : findShoppingCart(userId);
     }
 
-    private void addCartItem(ShoppingCart shoppingCart, Book book, int quantity) {
-        CartItem cartItem = new CartItem();
-        cartItem.setShoppingCart(shoppingCart);
-        cartItem.setBook(book);
-        cartItem.setQuantity(quantity);
-        shoppingCart.getCartItems().add(cartItem);
+    private CartItemResponseDto addBook(Long userId, CartItemRequestDto cartItem) {
+        if (!bookRepository.existsById(cartItem.bookId())) {
+            throw new EntityNotFoundException("Can't find book by id " + cartItem.bookId());
+        }
+        try {
+            cartItemRepository.addQuantity(userId, cartItem.bookId(), cartItem.quantity());
+        } catch (DataIntegrityViolationException e) {
+            throw new EntityNotFoundException("Can't find shopping cart by id " + userId);
+        }
+        CartItemResponseDto item = cartItemRepository.findItemView(userId,
+                        cartItem.bookId())
+                .orElseThrow(() -> new EntityNotFoundException("Can't find item with book id "
+                        + cartItem.bookId()));
+        cartViews.putItem(userId, item);
+        return item;
     }
 
-    private ShoppingCart findShoppingCart(Long id) {
-        return shoppingCartRepository.findByUserIdFetchCartItemsAndBooks(id)
-                .orElseThrow(() ->
-                        new EntityNotFoundException("Can't find shopping cart by id " + id));
+    /**
+     * Reads the cart in one projection query that selects only the item and book columns
+     * the response needs, instead of loading cart item and book entities. The view is
+     * cached and read right after writes, so it's always read from the primary.
+     */
+    private ShoppingCartResponseDto findShoppingCart(Long id) {
+        List<CartItemRow> rows = ReplicaRoutingDataSource.onPrimary(() ->
+                shoppingCartRepository.findCartRows(id));
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Can't find shopping cart by id " + id);
+        }
+        Set<CartItemResponseDto> items = new HashSet<>();
+        for (CartItemRow row : rows) {
+            if (row.cartItemId() != null) {
+                items.add(new CartItemResponseDto(row.cartItemId(), row.bookId(),
+                        row.bookTitle(), row.quantity()));
+            }
+        }
+        return new ShoppingCartResponseDto(rows.get(0).userId(), items);
     }
 }
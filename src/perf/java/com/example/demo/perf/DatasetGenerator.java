@@ -0,0 +1,308 @@
+package com.example.demo.perf;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Fills the store tables with a synthetic but plausible dataset through batched JDBC
+ * inserts. Ids continue after the rows already present, prices are a pure function
+ * of the book id so order totals can be computed without reading books back, and
+ * every generated user can log in with {@link #PASSWORD}.
+ */
+@Slf4j
+public class DatasetGenerator {
+    static final String PASSWORD = "perf-password";
+    static final String EMAIL_DOMAIN = "@perf.example.com";
+    private static final int BATCH_SIZE = 5000;
+    private static final int STOCK = 1_000_000;
+    private static final List<String> STATUSES = List.of("COMPLETED", "COMPLETED",
+            "COMPLETED", "PROCESSING", "PENDING", "CANCELED");
+    private static final List<String> WORDS = List.of("Silent", "River", "Garden", "Night",
+            "Empire", "Stone", "Winter", "Secret", "Journey", "Shadow", "Light", "Ocean",
+            "Forest", "Iron", "Glass", "Memory", "Storm", "Crown", "Letters", "Machine",
+            "Kingdom", "Summer", "Voices", "Atlas", "Harbor", "Orchard", "Signal", "Ember");
+    private static final List<String> FIRST_NAMES = List.of("Anna", "Oleh", "Maria", "John",
+            "Iryna", "Taras", "Emily", "James", "Sofia", "Andrii", "Olivia", "Noah");
+    private static final List<String> LAST_NAMES = List.of("Shevchenko", "Smith", "Kovalenko",
+            "Brown", "Bondarenko", "Taylor", "Melnyk", "Wilson", "Tkachenko", "Clarke");
+    private static final List<String> CITIES = List.of("Kyiv", "Lviv", "Odesa", "Kharkiv",
+            "Dnipro", "London", "Warsaw", "Berlin");
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final Random random;
+
+    public DatasetGenerator(String jdbcUrl, String username, String password, long seed) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.random = new Random(seed);
+    }
+
+    public void generate(int categories, int books, int users, int ordersPerUser)
+            throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION foreign_key_checks = 0");
+            }
+            long firstCategory = nextId(connection, "categories", "id");
+            long firstBook = nextId(connection, "books", "id");
+            long firstUser = nextId(connection, "users", "id");
+            insertCategories(connection, firstCategory, categories);
+            insertBooks(connection, firstBook, books, firstCategory, categories);
+            insertUsers(connection, firstUser, users);
+            insertCartItems(connection, firstUser, users, firstBook, books);
+            insertOrders(connection, firstUser, users, ordersPerUser, firstBook, books);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION foreign_key_checks = 1");
+            }
+        }
+    }
+
+    private void insertCategories(Connection connection, long firstId, int count)
+            throws SQLException {
+        try (Batch batch = new Batch(connection, "categories",
+                "INSERT INTO categories (id, name, description) VALUES (?, ?, ?)")) {
+            for (long id = firstId; id < firstId + count; id++) {
+                batch.statement.setLong(1, id);
+                batch.statement.setString(2, word() + " " + word() + " " + id);
+                batch.statement.setString(3, "Books about " + word().toLowerCase() + " and "
+                        + word().toLowerCase());
+                batch.add();
+            }
+        }
+    }
+
+    private void insertBooks(Connection connection, long firstId, int count,
+                             long firstCategory, int categories) throws SQLException {
+        try (Batch books = new Batch(connection, "books",
+                "INSERT INTO books (id, title, author, isbn, price, description, cover_image, "
+                        + "stock) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+                Batch links = new Batch(connection, "books_categories",
+                        "INSERT INTO books_categories (book_id, category_id) VALUES (?, ?)")) {
+            for (long id = firstId; id < firstId + count; id++) {
+                String title = "The " + word() + " " + word();
+                books.statement.setLong(1, id);
+                books.statement.setString(2, title);
+                books.statement.setString(3, pick(FIRST_NAMES) + " " + pick(LAST_NAMES));
+                books.statement.setString(4, isbn(id));
+                books.statement.setBigDecimal(5, price(id));
+                books.statement.setString(6, title + " is a story of " + word().toLowerCase()
+                        + ", " + word().toLowerCase() + " and " + word().toLowerCase() + ".");
+                books.statement.setString(7, "https://covers.example.com/" + id + ".jpg");
+                books.statement.setInt(8, STOCK);
+                books.add();
+                // Skewed towards low category ids so some categories are much hotter
+                long first = firstCategory + (long) (categories * Math.pow(random.nextDouble(), 2));
+                int linked = 1 + random.nextInt(3);
+                for (int i = 0; i < linked; i++) {
+                    links.statement.setLong(1, id);
+                    links.statement.setLong(2, firstCategory
+                            + (first - firstCategory + i) % categories);
+                    links.add();
+                }
+            }
+        }
+    }
+
+    private void insertUsers(Connection connection, long firstId, int count)
+            throws SQLException {
+        long roleId = queryLong(connection, "SELECT id FROM roles WHERE name = 'ROLE_USER'");
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        try (Batch users = new Batch(connection, "users",
+                "INSERT INTO users (id, email, password, first_name, last_name, "
+                        + "shipping_address) VALUES (?, ?, ?, ?, ?, ?)");
+                Batch roles = new Batch(connection, "users_roles",
+                        "INSERT INTO users_roles (user_id, role_id) VALUES (?, ?)");
+                Batch carts = new Batch(connection, "shopping_carts",
+                        "INSERT INTO shopping_carts (user_id) VALUES (?)")) {
+            for (long id = firstId; id < firstId + count; id++) {
+                users.statement.setLong(1, id);
+                users.statement.setString(2, email(id - firstId));
+                users.statement.setString(3, hash);
+                users.statement.setString(4, pick(FIRST_NAMES));
+                users.statement.setString(5, pick(LAST_NAMES));
+                users.statement.setString(6, address());
+                users.add();
+                roles.statement.setLong(1, id);
+                roles.statement.setLong(2, roleId);
+                roles.add();
+                carts.statement.setLong(1, id);
+                carts.add();
+            }
+        }
+    }
+
+    private void insertCartItems(Connection connection, long firstUser, int users,
+                                 long firstBook, int books) throws SQLException {
+        long id = nextId(connection, "cart_items", "id");
+        try (Batch batch = new Batch(connection, "cart_items",
+                "INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity) "
+                        + "VALUES (?, ?, ?, ?)")) {
+            for (long userId = firstUser; userId < firstUser + users; userId++) {
+                int items = random.nextInt(4);
+                long book = firstBook + random.nextInt(books);
+                for (int i = 0; i < items; i++) {
+                    batch.statement.setLong(1, id++);
+                    batch.statement.setLong(2, userId);
+                    batch.statement.setLong(3, firstBook + (book - firstBook + i) % books);
+                    batch.statement.setInt(4, 1 + random.nextInt(3));
+                    batch.add();
+                }
+            }
+        }
+    }
+
+    private void insertOrders(Connection connection, long firstUser, int users,
+                              int ordersPerUser, long firstBook, int books)
+            throws SQLException {
+        long orderId = nextId(connection, "orders", "id");
+        long itemId = Math.max(nextId(connection, "order_items", "id"),
+                queryLong(connection, "SELECT next_val FROM id_generators "
+                        + "WHERE name = 'order_items'"));
+        LocalDateTime now = LocalDateTime.now();
+        try (Batch orders = new Batch(connection, "orders",
+                "INSERT INTO orders (id, user_id, status, total_price, order_date, "
+                        + "shipping_address) VALUES (?, ?, ?, ?, ?, ?)");
+                Batch items = new Batch(connection, "order_items",
+                        "INSERT INTO order_items (id, order_id, book_id, quantity, price) "
+                                + "VALUES (?, ?, ?, ?, ?)")) {
+            for (long userId = firstUser; userId < firstUser + users; userId++) {
+                int count = random.nextInt(2 * ordersPerUser + 1);
+                for (int order = 0; order < count; order++) {
+                    BigDecimal total = BigDecimal.ZERO;
+                    int lines = 1 + random.nextInt(5);
+                    long book = firstBook + random.nextInt(books);
+                    for (int line = 0; line < lines; line++) {
+                        long bookId = firstBook + (book - firstBook + line) % books;
+                        int quantity = 1 + random.nextInt(3);
+                        BigDecimal price = price(bookId);
+                        total = total.add(price.multiply(BigDecimal.valueOf(quantity)));
+                        items.statement.setLong(1, itemId++);
+                        items.statement.setLong(2, orderId);
+                        items.statement.setLong(3, bookId);
+                        items.statement.setInt(4, quantity);
+                        items.statement.setBigDecimal(5, price);
+                        items.add();
+                    }
+                    orders.statement.setLong(1, orderId++);
+                    orders.statement.setLong(2, userId);
+                    orders.statement.setString(3, pick(STATUSES));
+                    orders.statement.setBigDecimal(4, total);
+                    orders.statement.setTimestamp(5, Timestamp.valueOf(
+                            now.minusMinutes(random.nextInt(2 * 365 * 24 * 60))));
+                    orders.statement.setString(6, address());
+                    orders.add();
+                }
+            }
+        }
+        // Keep the order item table generator ahead of the ids used here
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE id_generators SET next_val = ? WHERE name = 'order_items'")) {
+            statement.setLong(1, itemId + 100);
+            statement.executeUpdate();
+            connection.commit();
+        }
+    }
+
+    static String email(long index) {
+        return "user" + index + EMAIL_DOMAIN;
+    }
+
+    static BigDecimal price(long bookId) {
+        long hash = (bookId * 0x9E3779B97F4A7C15L) >>> 33;
+        return BigDecimal.valueOf(499 + hash % 7500, 2);
+    }
+
+    private static String isbn(long id) {
+        String digits = String.format("978%09d", id % 1_000_000_000L);
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+
+    private String address() {
+        return pick(CITIES) + ", " + (1 + random.nextInt(200)) + " " + word() + " St.";
+    }
+
+    private String word() {
+        return pick(WORDS);
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static long nextId(Connection connection, String table, String column)
+            throws SQLException {
+        return queryLong(connection, "SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM "
+                + table);
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(sql)) {
+            if (!resultSet.next()) {
+                throw new SQLException("No result for " + sql);
+            }
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * A prepared insert that is flushed and committed every {@link #BATCH_SIZE} rows.
+     */
+    private static final class Batch implements AutoCloseable {
+        private final Connection connection;
+        private final String table;
+        private final PreparedStatement statement;
+        private int pending;
+        private long total;
+
+        private Batch(Connection connection, String table, String sql) throws SQLException {
+            this.connection = connection;
+            this.table = table;
+            this.statement = connection.prepareStatement(sql);
+        }
+
+        private void add() throws SQLException {
+            statement.addBatch();
+            if (++pending == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            statement.executeBatch();
+            connection.commit();
+            total += pending;
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (pending > 0) {
+                    flush();
+                }
+                log.info("Inserted {} rows into {}", total, table);
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package com.example.demo.perf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Closed-loop load: each virtual user logs in as one of the generated users and then
+ * repeatedly browses the catalog, and on a share of its iterations fills the cart, views
+ * and edits it and checks out. Requests completed during the warmup are not recorded.
+ *
+ * <p>The checkout sweep measures placing an order against the number of items in the
+ * cart on its own, after the mixed load, the import scenario measures how many rows
+ * per second the catalog import writes, and the flash sale has many buyers check out
+ * the same title at once.
+ */
+@Slf4j
+public class LoadDriver {
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern CART_ITEM_ID = Pattern.compile("\"cartItemId\"\\s*:\\s*(\\d+)");
+    private static final Pattern IMPORTED = Pattern.compile("\"imported\"\\s*:\\s*(\\d+)");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final double CHECKOUT_SHARE = 0.3;
+    private static final int BROWSE_PAGES = 50;
+    private static final String SHIPPING_ADDRESS = "{\"shippingAddress\":\"Kyiv, 1 Load St.\"}";
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final String baseUrl;
+    private final int users;
+    private final long firstBookId;
+    private final long lastBookId;
+    private final long firstCategoryId;
+    private final long lastCategoryId;
+    private volatile long recordFrom;
+
+    public LoadDriver(String baseUrl, int users, long firstBookId, long lastBookId,
+                      long firstCategoryId, long lastCategoryId) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.firstBookId = firstBookId;
+        this.lastBookId = lastBookId;
+        this.firstCategoryId = firstCategoryId;
+        this.lastCategoryId = lastCategoryId;
+    }
+
+    public LoadReport run(int concurrency, Duration warmup, Duration duration)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        recordFrom = start + warmup.toNanos();
+        long end = recordFrom + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int user = i % users;
+            executor.execute(() -> virtualUser(user, end));
+        }
+        awaitTermination(executor, warmup.plus(duration).plus(REQUEST_TIMEOUT).toMillis());
+        double seconds = duration.toNanos() / 1e9;
+        Map<String, LoadReport.EndpointStats> stats = new TreeMap<>();
+        endpoints.forEach((name, endpoint) -> stats.put(name, endpoint.stats(seconds)));
+        return new LoadReport(duration.toMillis(), concurrency, stats);
+    }
+
+    /**
+     * For each item count, virtual users repeatedly fill their cart with that many
+     * distinct books and check out, until {@code checkouts} orders were placed. Only the
+     * checkout requests are recorded, under {@code POST /orders (<count> items)}.
+     * The sweep logs in as the last generated users, away from the mixed load's users.
+     */
+    public Map<String, LoadReport.EndpointStats> checkoutSweep(List<Integer> itemCounts,
+                                                               int checkouts,
+                                                               int concurrency)
+            throws InterruptedException {
+        Map<String, LoadReport.EndpointStats> stats = new TreeMap<>();
+        for (int items : itemCounts) {
+            Endpoint endpoint = new Endpoint();
+            AtomicInteger remaining = new AtomicInteger(checkouts);
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            long start = System.nanoTime();
+            for (int i = 0; i < concurrency; i++) {
+                int user = Math.floorMod(users - 1 - i, users);
+                executor.execute(() -> checkoutUser(user, items, remaining, endpoint));
+            }
+            awaitTermination(executor, TimeUnit.HOURS.toMillis(1));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            stats.put("POST /orders (" + items + " items)", endpoint.stats(seconds));
+        }
+        return stats;
+    }
+
+    /**
+     * Streams a feed of {@code rows} new books to the NDJSON import as the given admin and
+     * records it under {@code POST /books/import (rows)}, with the throughput in rows per
+     * second, every rejected row as an error and the latency of the whole request.
+     */
+    public Map<String, LoadReport.EndpointStats> importFeed(String adminEmail, int rows)
+            throws IOException, InterruptedException {
+        String token = login(adminEmail);
+        long isbnBase = System.currentTimeMillis() / 1000 % 1000 * ImportFeed.MAX_ROWS;
+        HttpRequest request = request("/books/import", token)
+                .timeout(Duration.ofHours(1))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ImportFeed(
+                        isbnBase, rows, firstCategoryId, lastCategoryId)))
+                .build();
+        long started = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        double seconds = (System.nanoTime() - started) / 1e9;
+        Matcher imported = IMPORTED.matcher(response.body());
+        if (response.statusCode() != 200 || !imported.find()) {
+            throw new IOException("Import failed: " + response.statusCode() + " "
+                    + response.body());
+        }
+        long failed = rows - Long.parseLong(imported.group(1));
+        return Map.of("POST /books/import (rows)", new LoadReport.EndpointStats(rows, failed,
+                rows / seconds, seconds * 1e3, seconds * 1e3, seconds * 1e3));
+    }
+
+    /**
+     * Gives the last book {@code stock} copies, has {@code buyers} users put one in their
+     * cart and releases all their checkouts at once. Checkouts turned away as out of stock
+     * are expected, anything else fails; every copy must be sold, and none twice. Recorded
+     * under {@code POST /orders (flash sale)}.
+     */
+    public Map<String, LoadReport.EndpointStats> flashSale(String adminEmail, int buyers,
+                                                           int stock)
+            throws IOException, InterruptedException {
+        long bookId = lastBookId;
+        String adminToken = login(adminEmail);
+        HttpResponse<Void> restocked = client.send(put("/books/" + bookId + "/stock",
+                "{\"stock\":" + stock + "}", adminToken), HttpResponse.BodyHandlers.discarding());
+        if (restocked.statusCode() != 200) {
+            throw new IOException("Can't set stock of book " + bookId + ": "
+                    + restocked.statusCode());
+        }
+        Endpoint endpoint = new Endpoint();
+        LongAdder sold = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(buyers);
+        for (int i = 0; i < buyers; i++) {
+            // Away from the mixed load's users at the start and the sweep's at the end
+            int user = (users / 2 + i) % users;
+            executor.execute(() -> buyer(user, bookId, ready, start, endpoint, sold));
+        }
+        ready.await();
+        long started = System.nanoTime();
+        start.countDown();
+        awaitTermination(executor, REQUEST_TIMEOUT.toMillis() * 2);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        HttpResponse<String> left = client.send(get("/books/" + bookId + "/stock", adminToken),
+                HttpResponse.BodyHandlers.ofString());
+        long expected = Math.min(stock, buyers);
+        if (sold.sum() != expected || !left.body().contains("\"stock\":" + (stock - expected))) {
+            log.error("Flash sale sold {} of {} copies to {} buyers, stock left: {}",
+                    sold.sum(), stock, buyers, left.body());
+            endpoint.errors.add(Math.max(1, Math.abs(expected - sold.sum())));
+        }
+        return Map.of("POST /orders (flash sale)", endpoint.stats(seconds));
+    }
+
+    private void buyer(int user, long bookId, CountDownLatch ready, CountDownLatch start,
+                       Endpoint endpoint, LongAdder sold) {
+        String token = null;
+        try {
+            token = login(DatasetGenerator.email(user));
+            // Check out whatever the generated cart held, so only the sale title is bought
+            client.send(post("/orders", SHIPPING_ADDRESS, token),
+                    HttpResponse.BodyHandlers.discarding());
+            client.send(post("/cart", "{\"bookId\":" + bookId + ",\"quantity\":1}", token),
+                    HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            log.error("Flash sale buyer {} couldn't fill the cart", user, e);
+            token = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            token = null;
+        } finally {
+            ready.countDown();
+        }
+        if (token == null) {
+            endpoint.errors.increment();
+            return;
+        }
+        try {
+            start.await();
+            long started = System.nanoTime();
+            HttpResponse<Void> response = client.send(post("/orders", SHIPPING_ADDRESS, token),
+                    HttpResponse.BodyHandlers.discarding());
+            endpoint.latencies.recordValue(System.nanoTime() - started);
+            if (response.statusCode() == 201) {
+                sold.increment();
+            } else if (response.statusCode() != 409) {
+                endpoint.errors.increment();
+            }
+        } catch (IOException e) {
+            endpoint.errors.increment();
+            log.error("Flash sale buyer {} failed to check out", user, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkoutUser(int user, int items, AtomicInteger remaining,
+                              Endpoint endpoint) {
+        try {
+            String token = login(DatasetGenerator.email(user));
+            // Check out whatever the generated cart held, so every measured cart is exact
+            client.send(post("/orders", SHIPPING_ADDRESS, token),
+                    HttpResponse.BodyHandlers.discarding());
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long books = lastBookId - firstBookId + 1;
+            while (remaining.getAndDecrement() > 0) {
+                long first = randomBook(random);
+                for (int i = 0; i < items; i++) {
+                    long bookId = firstBookId + (first - firstBookId + i) % books;
+                    client.send(post("/cart", "{\"bookId\":" + bookId + ",\"quantity\":1}",
+                            token), HttpResponse.BodyHandlers.discarding());
+                }
+                long started = System.nanoTime();
+                HttpResponse<Void> response = client.send(post("/orders", SHIPPING_ADDRESS,
+                        token), HttpResponse.BodyHandlers.discarding());
+                endpoint.latencies.recordValue(System.nanoTime() - started);
+                if (response.statusCode() >= 400) {
+                    endpoint.errors.increment();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Checkout sweep user {} stopped", user, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void virtualUser(int user, long end) {
+        try {
+            String token = login(DatasetGenerator.email(user));
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < end) {
+                send("GET /books", get("/books?size=20&page=" + random.nextInt(BROWSE_PAGES),
+                        token));
+                send("GET /books/{id}", get("/books/" + randomBook(random), token));
+                send("GET /categories/{id}/books", get("/categories/"
+                        + random.nextLong(firstCategoryId, lastCategoryId + 1)
+                        + "/books?size=20", token));
+                if (random.nextDouble() < CHECKOUT_SHARE) {
+                    int items = 2 + random.nextInt(3);
+                    List<String> itemIds = new ArrayList<>(items);
+                    for (int i = 0; i < items; i++) {
+                        HttpResponse<String> added = send("POST /cart", post("/cart",
+                                "{\"bookId\":" + randomBook(random) + ",\"quantity\":1}",
+                                token));
+                        Matcher matcher = CART_ITEM_ID.matcher(added.body());
+                        if (matcher.find()) {
+                            itemIds.add(matcher.group(1));
+                        }
+                    }
+                    editCart(token, itemIds);
+                    send("POST /orders", post("/orders", SHIPPING_ADDRESS, token));
+                }
+            }
+        } catch (IOException e) {
+            log.error("Virtual user {} stopped", user, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Views the cart and then changes the quantity of its first item and removes its last,
+     * the edits that answer with the whole cart.
+     */
+    private void editCart(String token, List<String> itemIds)
+            throws IOException, InterruptedException {
+        send("GET /cart", get("/cart", token));
+        if (itemIds.size() < 2) {
+            return;
+        }
+        send("PUT /cart/items/{id}", put("/cart/items/" + itemIds.get(0),
+                "{\"quantity\":2}", token));
+        send("DELETE /cart/items/{id}", request("/cart/items/"
+                + itemIds.get(itemIds.size() - 1), token).DELETE().build());
+    }
+
+    private String login(String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("POST /auth/login", post("/auth/login",
+                "{\"email\":\"" + email + "\",\"password\":\""
+                        + DatasetGenerator.PASSWORD + "\"}", null));
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IOException("Can't log in as " + email + ": " + response.statusCode());
+        }
+        return matcher.group(1);
+    }
+
+    private long randomBook(ThreadLocalRandom random) {
+        return random.nextLong(firstBookId, lastBookId + 1);
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String json, String token) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest put(String path, String json, String token) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request)
+            throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            record(endpoint, started, true);
+            throw e;
+        }
+        record(endpoint, started, response.statusCode() >= 400);
+        return response;
+    }
+
+    private static void awaitTermination(ExecutorService executor, long timeoutMillis)
+            throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void record(String endpoint, long started, boolean failed) {
+        if (started < recordFrom) {
+            return;
+        }
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.latencies.recordValue(System.nanoTime() - started);
+        if (failed) {
+            stats.errors.increment();
+        }
+    }
+
+    private static final class Endpoint {
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+
+        private LoadReport.EndpointStats stats(double seconds) {
+            long count = latencies.getTotalCount();
+            return new LoadReport.EndpointStats(count, errors.sum(), count / seconds,
+                    millis(50), millis(99), millis(99.9));
+        }
+
+        private double millis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+
+    /**
+     * Generates the import feed row by row while the request body is sent, so the feed
+     * never sits in memory. Every row gets a valid ISBN-13 of its own.
+     */
+    private static final class ImportFeed extends InputStream {
+        private static final long MAX_ROWS = 1_000_000;
+        private final long isbnBase;
+        private final int rows;
+        private final long firstCategoryId;
+        private final long categories;
+        private byte[] line = new byte[0];
+        private int position;
+        private int row;
+
+        private ImportFeed(long isbnBase, int rows, long firstCategoryId, long lastCategoryId) {
+            if (rows > MAX_ROWS) {
+                throw new IllegalArgumentException("At most " + MAX_ROWS + " rows per import");
+            }
+            this.isbnBase = isbnBase;
+            this.rows = rows;
+            this.firstCategoryId = firstCategoryId;
+            this.categories = lastCategoryId - firstCategoryId + 1;
+        }
+
+        @Override
+        public int read() {
+            if (!fill()) {
+                return -1;
+            }
+            return line[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int read = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, read);
+            position += read;
+            return read;
+        }
+
+        private boolean fill() {
+            if (position < line.length) {
+                return true;
+            }
+            if (row == rows) {
+                return false;
+            }
+            String isbn = isbn(isbnBase + row);
+            line = ("{\"title\":\"Imported " + isbn + "\",\"author\":\"Perf Author\","
+                    + "\"isbn\":\"" + isbn + "\",\"price\":" + DatasetGenerator.price(row)
+                    + ",\"description\":\"Imported by the perf harness.\",\"categoryIds\":["
+                    + (firstCategoryId + row % categories) + "]}\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            row++;
+            return true;
+        }
+
+        private static String isbn(long number) {
+            String digits = String.format("979%09d", number);
+            int sum = 0;
+            for (int i = 0; i < digits.length(); i++) {
+                sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+            }
+            return digits + (10 - sum % 10) % 10;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles per endpoint, stored as JSON so a run can be
+ * compared with a baseline recorded earlier.
+ */
+public record LoadReport(long durationMillis,
+                         int concurrency,
+                         Map<String, EndpointStats> endpoints) {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    public static LoadReport read(Path path) throws IOException {
+        return OBJECT_MAPPER.readValue(path.toFile(), LoadReport.class);
+    }
+
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        OBJECT_MAPPER.writeValue(path.toFile(), this);
+    }
+
+    public String format() {
+        StringBuilder table = new StringBuilder(String.format("%-32s %9s %7s %10s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms"));
+        endpoints.forEach((name, stats) -> table.append(String.format(
+                "%-32s %9d %7d %10.1f %9.2f %9.2f %9.2f%n", name, stats.count(),
+                stats.errors(), stats.throughput(), stats.p50Millis(), stats.p99Millis(),
+                stats.p999Millis())));
+        return table.toString();
+    }
+
+    /**
+     * Lists every endpoint whose p99 latency grew or whose throughput dropped by more than
+     * the tolerance compared with the baseline, or that failed more than 1% of requests.
+     */
+    public List<String> regressionsAgainst(LoadReport baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        endpoints.forEach((name, stats) -> {
+            if (stats.count() > 0 && (double) stats.errors() / stats.count() > MAX_ERROR_RATE) {
+                regressions.add(String.format("%s failed %d of %d requests", name,
+                        stats.errors(), stats.count()));
+            }
+            EndpointStats expected = baseline.endpoints().get(name);
+            if (expected == null) {
+                return;
+            }
+            if (stats.p99Millis() > expected.p99Millis() * (1 + tolerance)) {
+                regressions.add(String.format("%s p99 %.2f ms, baseline %.2f ms", name,
+                        stats.p99Millis(), expected.p99Millis()));
+            }
+            if (stats.throughput() < expected.throughput() * (1 - tolerance)) {
+                regressions.add(String.format("%s throughput %.1f req/s, baseline %.1f req/s",
+                        name, stats.throughput(), expected.throughput()));
+            }
+        });
+        return regressions;
+    }
+
+    public record EndpointStats(long count,
+                                long errors,
+                                double throughput,
+                                double p50Millis,
+                                double p99Millis,
+                                double p999Millis) {
+    }
+}
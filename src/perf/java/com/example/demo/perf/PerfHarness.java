@@ -0,0 +1,199 @@
+package com.example.demo.perf;
+
+import com.example.demo.ShopApplication;
+import com.example.demo.service.category.CategorySnapshot;
+import com.example.demo.service.search.BookSearchIndex;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * Runs a load test end to end and exits with a non-zero status when it regresses
+ * against the stored baseline.
+ *
+ * <p>Without {@code perf.jdbc-url} a MySQL container is started; without
+ * {@code perf.base-url} the application is started in-process against that database,
+ * which also applies the Liquibase changelog. The synthetic dataset is generated once,
+ * on the first run against an empty database. All settings are system properties,
+ * see the {@code perf} Maven profile for the defaults.
+ */
+@Slf4j
+public final class PerfHarness {
+    private PerfHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        MySQLContainer<?> container = null;
+        ConfigurableApplicationContext application = null;
+        boolean passed;
+        try {
+            String jdbcUrl = property("perf.jdbc-url", null);
+            String jdbcUser = property("perf.jdbc-user", "root");
+            String jdbcPassword = property("perf.jdbc-password", "");
+            if (jdbcUrl == null) {
+                container = new MySQLContainer<>("mysql:8.0").withDatabaseName("bookshop");
+                container.start();
+                jdbcUrl = container.getJdbcUrl();
+                jdbcUser = container.getUsername();
+                jdbcPassword = container.getPassword();
+            }
+            jdbcUrl = withBatchedStatements(jdbcUrl);
+            String baseUrl = property("perf.base-url", null);
+            if (baseUrl == null) {
+                application = SpringApplication.run(ShopApplication.class,
+                        "--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=" + jdbcUser,
+                        "--spring.datasource.password=" + jdbcPassword,
+                        "--spring.jpa.show-sql=false",
+                        "--server.port=0");
+                Environment environment = application.getEnvironment();
+                baseUrl = "http://localhost:" + environment.getProperty("local.server.port")
+                        + environment.getProperty("server.servlet.context-path", "");
+            }
+            int users = Integer.parseInt(property("perf.users", "100000"));
+            if (!isGenerated(jdbcUrl, jdbcUser, jdbcPassword)) {
+                log.info("Generating dataset");
+                new DatasetGenerator(jdbcUrl, jdbcUser, jdbcPassword,
+                        Long.parseLong(property("perf.seed", "42")))
+                        .generate(Integer.parseInt(property("perf.categories", "200")),
+                                Integer.parseInt(property("perf.books", "1000000")),
+                                users,
+                                Integer.parseInt(property("perf.orders-per-user", "5")));
+                if (application != null) {
+                    application.getBean(BookSearchIndex.class).rebuild();
+                    application.getBean(CategorySnapshot.class).reload();
+                }
+            }
+            long[] books = idRange(jdbcUrl, jdbcUser, jdbcPassword, "books");
+            long[] categories = idRange(jdbcUrl, jdbcUser, jdbcPassword, "categories");
+            LoadDriver driver = new LoadDriver(baseUrl, users, books[0], books[1],
+                    categories[0], categories[1]);
+            int concurrency = Integer.parseInt(property("perf.concurrency", "50"));
+            LoadReport load = driver.run(concurrency,
+                    Duration.parse(property("perf.warmup", "PT30S")),
+                    Duration.parse(property("perf.duration", "PT2M")));
+            Map<String, LoadReport.EndpointStats> endpoints = new TreeMap<>(load.endpoints());
+            endpoints.putAll(driver.checkoutSweep(Arrays.stream(
+                            property("perf.checkout-items", "1,10,50,200").split(","))
+                            .map(String::trim)
+                            .map(Integer::valueOf)
+                            .toList(),
+                    Integer.parseInt(property("perf.checkouts", "200")),
+                    Integer.parseInt(property("perf.checkout-concurrency", "10"))));
+            grantAdmin(jdbcUrl, jdbcUser, jdbcPassword, DatasetGenerator.email(0));
+            endpoints.putAll(driver.flashSale(DatasetGenerator.email(0),
+                    Integer.parseInt(property("perf.flash-sale-buyers", "500")),
+                    Integer.parseInt(property("perf.flash-sale-stock", "100"))));
+            endpoints.putAll(driver.importFeed(DatasetGenerator.email(0),
+                    Integer.parseInt(property("perf.import-rows", "200000"))));
+            LoadReport report = new LoadReport(load.durationMillis(), concurrency, endpoints);
+            log.info("Load test results:\n{}", report.format());
+            report.write(Path.of(property("perf.result", "target/perf-result.json")));
+            boolean heldBaseline = compareWithBaseline(report);
+            passed = meetsImportTarget(report) && heldBaseline;
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+            if (container != null) {
+                container.stop();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean compareWithBaseline(LoadReport report) throws Exception {
+        Path baseline = Path.of(property("perf.baseline", "src/perf/resources/baseline.json"));
+        if (Boolean.parseBoolean(property("perf.update-baseline", "false"))) {
+            report.write(baseline);
+            log.info("Stored results as the new baseline {}", baseline);
+            return true;
+        }
+        if (!Files.exists(baseline)) {
+            log.warn("No baseline at {}, nothing to compare with", baseline);
+            return true;
+        }
+        List<String> regressions = report.regressionsAgainst(LoadReport.read(baseline),
+                Double.parseDouble(property("perf.tolerance", "0.2")));
+        regressions.forEach(regression -> log.error("Regression: {}", regression));
+        return regressions.isEmpty();
+    }
+
+    private static boolean meetsImportTarget(LoadReport report) {
+        double target = Double.parseDouble(property("perf.import-target", "20000"));
+        double throughput = report.endpoints().get("POST /books/import (rows)").throughput();
+        if (throughput < target) {
+            log.error("Import wrote {} rows/s, the target is {} rows/s",
+                    String.format("%.0f", throughput), String.format("%.0f", target));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Restocking and the import are admin only, so the first generated user is given
+     * the admin role too.
+     */
+    private static void grantAdmin(String jdbcUrl, String user, String password, String email)
+            throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password);
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO users_roles (user_id, role_id) "
+                                + "SELECT u.id, r.id FROM users u JOIN roles r "
+                                + "ON r.name = 'ROLE_ADMIN' WHERE u.email = ? "
+                                + "AND NOT EXISTS (SELECT 1 FROM users_roles ur "
+                                + "WHERE ur.user_id = u.id AND ur.role_id = r.id)")) {
+            statement.setString(1, email);
+            statement.executeUpdate();
+        }
+    }
+
+    private static boolean isGenerated(String jdbcUrl, String user, String password)
+            throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password);
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT COUNT(*) FROM users WHERE email = ?")) {
+            statement.setString(1, DatasetGenerator.email(0));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getLong(1) > 0;
+            }
+        }
+    }
+
+    private static long[] idRange(String jdbcUrl, String user, String password, String table)
+            throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password);
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT MIN(id), MAX(id) FROM " + table + " WHERE is_deleted = false");
+                ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return new long[] {resultSet.getLong(1), resultSet.getLong(2)};
+        }
+    }
+
+    private static String withBatchedStatements(String jdbcUrl) {
+        if (jdbcUrl.contains("rewriteBatchedStatements")) {
+            return jdbcUrl;
+        }
+        return jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
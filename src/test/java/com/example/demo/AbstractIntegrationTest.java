@@ -0,0 +1,173 @@
+package com.example.demo;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.demo.dto.cartitem.CartItemRequestDto;
+import com.example.demo.dto.order.OrderResponseDto;
+import com.example.demo.dto.order.PlaceOrderRequestDto;
+import com.example.demo.dto.user.LoginUserRequestDto;
+import com.example.demo.dto.user.LoginUserResponseDto;
+import com.example.demo.model.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+/**
+ * Boots the application against a MySQL container started through the Testcontainers
+ * JDBC URL of the test profile, and creates the users, books and categories a test needs
+ * with plain JDBC so fixtures don't show up in Hibernate statistics.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public abstract class AbstractIntegrationTest {
+    protected static final String PASSWORD = "password";
+
+    @Autowired
+    protected MockMvc mockMvc;
+    @Autowired
+    protected ObjectMapper objectMapper;
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CacheManager cacheManager;
+
+    protected Long createUser(String email, Role.RoleName roleName) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO users (email, password, first_name, last_name) "
+                            + "VALUES (?, ?, 'Test', 'User')",
+                    Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, email);
+            statement.setString(2, passwordEncoder.encode(PASSWORD));
+            return statement;
+        }, keyHolder);
+        Long userId = Objects.requireNonNull(keyHolder.getKey()).longValue();
+        jdbcTemplate.update("INSERT INTO users_roles (user_id, role_id) "
+                + "SELECT ?, id FROM roles WHERE name = ?", userId, roleName.name());
+        jdbcTemplate.update("INSERT INTO shopping_carts (user_id) VALUES (?)", userId);
+        return userId;
+    }
+
+    protected String uniqueEmail() {
+        return UUID.randomUUID() + "@mail.com";
+    }
+
+    protected Long createCategory(String name) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO categories (name) VALUES (?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, name);
+            return statement;
+        }, keyHolder);
+        return Objects.requireNonNull(keyHolder.getKey()).longValue();
+    }
+
+    protected Long createBook(int stock, Long... categoryIds) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        String isbn = UUID.randomUUID().toString();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO books (title, author, isbn, price, stock) "
+                            + "VALUES (?, 'Test Author', ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, "Book " + isbn);
+            statement.setString(2, isbn);
+            statement.setBigDecimal(3, BigDecimal.TEN);
+            statement.setInt(4, stock);
+            return statement;
+        }, keyHolder);
+        Long bookId = Objects.requireNonNull(keyHolder.getKey()).longValue();
+        for (Long categoryId : categoryIds) {
+            jdbcTemplate.update("INSERT INTO books_categories (book_id, category_id) "
+                    + "VALUES (?, ?)", bookId, categoryId);
+        }
+        return bookId;
+    }
+
+    protected String login(String email) throws Exception {
+        String response = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new LoginUserRequestDto(email, PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return "Bearer " + objectMapper.readValue(response, LoginUserResponseDto.class).token();
+    }
+
+    protected void addToCart(String token, Long bookId) throws Exception {
+        mockMvc.perform(post("/cart")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CartItemRequestDto(bookId, 1))))
+                .andExpect(status().isOk());
+    }
+
+    protected OrderResponseDto placeOrder(String token) throws Exception {
+        String response = mockMvc.perform(post("/orders")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new PlaceOrderRequestDto("Kyiv, 1 Test St."))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(response, OrderResponseDto.class);
+    }
+
+    /**
+     * Runs the request against cold caches and returns the number of statements
+     * Hibernate prepared for it.
+     */
+    protected long countStatements(RequestBuilder request) throws Exception {
+        clearCaches();
+        statistics().clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics().getPrepareStatementCount();
+    }
+
+    /**
+     * Empties the Spring caches and every second-level cache region, so the next request
+     * reads from the database the way a cold request would.
+     */
+    protected void clearCaches() {
+        cacheManager.getCacheNames().forEach(name ->
+                Objects.requireNonNull(cacheManager.getCache(name)).clear());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    protected Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.demo.AbstractIntegrationTest;
+import com.example.demo.dto.book.CreateBookRequestDto;
+import com.example.demo.model.Role;
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.jdbc.ContainerDatabaseDriver;
+
+/**
+ * Runs against a second MySQL container as the replica. Nothing replicates into it,
+ * so it behaves like a replica that lags forever: rows written through the application
+ * only exist on the primary, and rows inserted into the replica only exist there.
+ */
+@TestPropertySource(properties = "datasource.replica.urls=" + ReplicaRoutingTest.REPLICA_URL)
+class ReplicaRoutingTest extends AbstractIntegrationTest {
+    static final String REPLICA_URL = "jdbc:tc:mysql:8.0:///bookshop_replica?TC_DAEMON=true";
+    private static JdbcTemplate replica;
+
+    @BeforeAll
+    static void createReplicaSchema() throws Exception {
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource(
+                new ContainerDatabaseDriver(), REPLICA_URL, "test", "test");
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-test.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void filterBooks_readOnly_servedByReplica() throws Exception {
+        String author = "Replica " + UUID.randomUUID();
+        replica.update("INSERT INTO books (title, author, isbn, price) VALUES (?, ?, ?, 10)",
+                "Only on the replica", author, UUID.randomUUID().toString());
+
+        mockMvc.perform(get("/books").param("author", author)
+                        .header(HttpHeaders.AUTHORIZATION, userToken(Role.RoleName.ROLE_USER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].author").value(author));
+    }
+
+    @Test
+    void findAllBooks_cachedPage_filledFromPrimary() throws Exception {
+        Long bookId = createBook(1, createCategory("Paged " + UUID.randomUUID()));
+        clearCaches();
+
+        mockMvc.perform(get("/books").param("sort", "id,desc").param("size", "1")
+                        .header(HttpHeaders.AUTHORIZATION, userToken(Role.RoleName.ROLE_USER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(bookId));
+    }
+
+    @Test
+    void updateBook_bookOnlyOnPrimary_readsItFromPrimary() throws Exception {
+        Long categoryId = createCategory("Updated " + UUID.randomUUID());
+        Long bookId = createBook(1, categoryId);
+        CreateBookRequestDto update = new CreateBookRequestDto()
+                .setTitle("Updated on the primary")
+                .setAuthor("Test Author")
+                .setPrice(BigDecimal.TEN)
+                .setCategoryIds(Set.of(categoryId));
+
+        mockMvc.perform(put("/books/" + bookId)
+                        .header(HttpHeaders.AUTHORIZATION, userToken(Role.RoleName.ROLE_ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Updated on the primary"));
+    }
+
+    private String userToken(Role.RoleName roleName) throws Exception {
+        String email = uniqueEmail();
+        createUser(email, roleName);
+        return login(email);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import com.example.demo.AbstractIntegrationTest;
+import com.example.demo.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class BookControllerStatementCountTest extends AbstractIntegrationTest {
+    private static final int BOOKS = 30;
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Long fiction = createCategory("Fiction");
+        Long classics = createCategory("Classics");
+        for (int i = 0; i < BOOKS; i++) {
+            createBook(1, fiction, classics);
+        }
+        String email = uniqueEmail();
+        createUser(email, Role.RoleName.ROLE_USER);
+        token = login(email);
+    }
+
+    @Test
+    void findAll_largerPage_sameStatementCount() throws Exception {
+        long smallPage = countStatements("/books?page=0&size=2");
+        long largePage = countStatements("/books?page=0&size=" + BOOKS);
+
+        assertEquals(smallPage, largePage,
+                "Categories of a page must be loaded in one batch, not per book");
+    }
+
+    @Test
+    void scroll_largerPage_sameStatementCount() throws Exception {
+        long smallPage = countStatements("/books?after=&sort=id&size=2");
+        long largePage = countStatements("/books?after=&sort=id&size=" + BOOKS);
+
+        assertEquals(smallPage, largePage,
+                "Categories of a page must be loaded in one batch, not per book");
+    }
+
+    private long countStatements(String uri) throws Exception {
+        return countStatements(get(uri).header(HttpHeaders.AUTHORIZATION, token));
+    }
+}
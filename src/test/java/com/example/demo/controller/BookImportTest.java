@@ -0,0 +1,70 @@
+package com.example.demo.controller;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.demo.AbstractIntegrationTest;
+import com.example.demo.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class BookImportTest extends AbstractIntegrationTest {
+    private static final String FIRST_ISBN = "9780306406157";
+    private static final String SECOND_ISBN = "9781861972712";
+    private static final String STOCKED_ISBN = "9780262033848";
+
+    @Test
+    void importNdjson_duplicateIsbnInChunk_reportsLaterRow() throws Exception {
+        Long categoryId = createCategory("Imported");
+        String email = uniqueEmail();
+        createUser(email, Role.RoleName.ROLE_ADMIN);
+        String feed = row(FIRST_ISBN, "First", categoryId)
+                + row(SECOND_ISBN, "Second", categoryId)
+                + row(FIRST_ISBN, "First again", categoryId);
+
+        mockMvc.perform(post("/books/import")
+                        .header(HttpHeaders.AUTHORIZATION, login(email))
+                        .contentType("application/x-ndjson")
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed").value(3))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].row").value(3))
+                .andExpect(jsonPath("$.errors[0].isbn").value(FIRST_ISBN));
+    }
+
+    @Test
+    void importNdjson_rowWithStock_setsStockOnlyWhenGiven() throws Exception {
+        Long categoryId = createCategory("Stocked");
+        String email = uniqueEmail();
+        createUser(email, Role.RoleName.ROLE_ADMIN);
+        String token = login(email);
+        String stocked = row(STOCKED_ISBN, "Stocked", categoryId)
+                .replace("\"price\":10", "\"price\":10,\"stock\":25");
+
+        importNdjson(token, stocked);
+        importNdjson(token, row(STOCKED_ISBN, "Stocked again", categoryId));
+
+        assertEquals(25, jdbcTemplate.queryForObject(
+                "SELECT stock FROM books WHERE isbn = ?", Integer.class, STOCKED_ISBN));
+    }
+
+    private void importNdjson(String token, String feed) throws Exception {
+        mockMvc.perform(post("/books/import")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType("application/x-ndjson")
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.failed").value(0));
+    }
+
+    private String row(String isbn, String title, Long categoryId) {
+        return "{\"title\":\"" + title + "\",\"author\":\"Test Author\",\"isbn\":\"" + isbn
+                + "\",\"price\":10,\"categoryIds\":[" + categoryId + "]}\n";
+    }
+}
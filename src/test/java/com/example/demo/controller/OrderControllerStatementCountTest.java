@@ -0,0 +1,97 @@
+package com.example.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.demo.AbstractIntegrationTest;
+import com.example.demo.dto.order.OrderResponseDto;
+import com.example.demo.model.Role;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+class OrderControllerStatementCountTest extends AbstractIntegrationTest {
+    private static final int ORDERS = 5;
+    private static final int ITEMS = 20;
+    private String smallUser;
+    private String largeUser;
+    private OrderResponseDto smallOrder;
+    private OrderResponseDto largeOrder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smallUser = createUserToken();
+        smallOrder = placeOrders(smallUser, 1, 2).get(0);
+        largeUser = createUserToken();
+        largeOrder = placeOrders(largeUser, ORDERS, ITEMS).get(0);
+    }
+
+    @Test
+    void getAllOrders_moreOrdersAndItems_sameStatementCount() throws Exception {
+        assertEquals(countStatements(get("/orders").header(HttpHeaders.AUTHORIZATION, smallUser)),
+                countStatements(get("/orders").header(HttpHeaders.AUTHORIZATION, largeUser)),
+                "Orders of a page and their items must be read in one query");
+    }
+
+    @Test
+    void streamAllOrders_moreOrdersAndItems_sameStatementCount() throws Exception {
+        assertEquals(countStreamStatements(smallUser), countStreamStatements(largeUser),
+                "Streamed orders must not load their items or books one by one");
+    }
+
+    @Test
+    void findOrderById_moreItems_sameStatementCount() throws Exception {
+        assertEquals(countStatements(get("/orders/{id}/items", smallOrder.id())
+                        .header(HttpHeaders.AUTHORIZATION, smallUser)),
+                countStatements(get("/orders/{id}/items", largeOrder.id())
+                        .header(HttpHeaders.AUTHORIZATION, largeUser)),
+                "An order and its items must be read in one query, not per item");
+    }
+
+    @Test
+    void findOrderItem_moreItems_sameStatementCount() throws Exception {
+        assertEquals(countStatements(get("/orders/{id}/items/{itemId}", smallOrder.id(),
+                        smallOrder.orderItems().iterator().next().id())
+                        .header(HttpHeaders.AUTHORIZATION, smallUser)),
+                countStatements(get("/orders/{id}/items/{itemId}", largeOrder.id(),
+                        largeOrder.orderItems().iterator().next().id())
+                        .header(HttpHeaders.AUTHORIZATION, largeUser)),
+                "An order item must be read without loading the rest of its order");
+    }
+
+    private String createUserToken() throws Exception {
+        String email = uniqueEmail();
+        createUser(email, Role.RoleName.ROLE_USER);
+        return login(email);
+    }
+
+    private List<OrderResponseDto> placeOrders(String token, int orders, int items)
+            throws Exception {
+        List<OrderResponseDto> placed = new ArrayList<>();
+        for (int order = 0; order < orders; order++) {
+            for (int item = 0; item < items; item++) {
+                addToCart(token, createBook(10));
+            }
+            placed.add(placeOrder(token));
+        }
+        return placed;
+    }
+
+    private long countStreamStatements(String token) throws Exception {
+        clearCaches();
+        statistics().clear();
+        MvcResult result = mockMvc.perform(get("/orders")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        return statistics().getPrepareStatementCount();
+    }
+}
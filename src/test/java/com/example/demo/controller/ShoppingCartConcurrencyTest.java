@@ -0,0 +1,107 @@
+package com.example.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.example.demo.AbstractIntegrationTest;
+import com.example.demo.dto.cartitem.CartItemRequestDto;
+import com.example.demo.model.Role;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Adds books to one user's cart from many threads at once and checks that the database
+ * ends up with one row per book holding every added quantity.
+ */
+class ShoppingCartConcurrencyTest extends AbstractIntegrationTest {
+    private static final int THREADS = 16;
+    private static final int ADDS_PER_THREAD = 25;
+    private ExecutorService executor;
+    private Long userId;
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(THREADS);
+        String email = uniqueEmail();
+        userId = createUser(email, Role.RoleName.ROLE_USER);
+        token = login(email);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void addBook_sameBookConcurrently_sumsEveryQuantity() throws Exception {
+        Long bookId = createBook(1000);
+
+        addConcurrently(thread -> bookId);
+
+        assertEquals(List.of(THREADS * ADDS_PER_THREAD), quantities(bookId));
+    }
+
+    @Test
+    void addBook_differentBooksConcurrently_keepsEveryItem() throws Exception {
+        List<Long> bookIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookIds.add(createBook(1000));
+        }
+
+        addConcurrently(bookIds::get);
+
+        for (Long bookId : bookIds) {
+            assertEquals(List.of(ADDS_PER_THREAD), quantities(bookId));
+        }
+    }
+
+    private void addConcurrently(IntFunction<Long> bookOfThread) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> failures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            String body = objectMapper.writeValueAsString(
+                    new CartItemRequestDto(bookOfThread.apply(thread), 1));
+            Callable<Integer> adds = () -> {
+                start.await();
+                int failed = 0;
+                for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                    int status = mockMvc.perform(post("/cart")
+                                    .header(HttpHeaders.AUTHORIZATION, token)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn()
+                            .getResponse()
+                            .getStatus();
+                    if (status != 200) {
+                        failed++;
+                    }
+                }
+                return failed;
+            };
+            failures.add(executor.submit(adds));
+        }
+        start.countDown();
+        for (Future<Integer> failed : failures) {
+            assertEquals(0, failed.get(2, TimeUnit.MINUTES), "Every add must succeed");
+        }
+    }
+
+    private List<Integer> quantities(Long bookId) {
+        return jdbcTemplate.queryForList("SELECT quantity FROM cart_items "
+                + "WHERE shopping_cart_id = ? AND book_id = ? AND is_deleted = false",
+                Integer.class, userId, bookId);
+    }
+}
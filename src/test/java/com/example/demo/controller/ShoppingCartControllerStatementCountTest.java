@@ -0,0 +1,115 @@
+package com.example.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.demo.AbstractIntegrationTest;
+import com.example.demo.config.CacheConfig;
+import com.example.demo.dto.cartitem.CartItemResponseDto;
+import com.example.demo.dto.cartitem.UpdateCartItemRequestDto;
+import com.example.demo.dto.shoppingcart.ShoppingCartResponseDto;
+import com.example.demo.model.Role;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+class ShoppingCartControllerStatementCountTest extends AbstractIntegrationTest {
+    private static final int ITEMS = 20;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void getShoppingCart_moreItems_sameStatementCount() throws Exception {
+        String smallCart = userWithCart(2);
+        String largeCart = userWithCart(ITEMS);
+
+        assertEquals(countStatements(get("/cart").header(HttpHeaders.AUTHORIZATION, smallCart)),
+                countStatements(get("/cart").header(HttpHeaders.AUTHORIZATION, largeCart)),
+                "Cart items and their books must be read in one query, not per item");
+    }
+
+    @Test
+    void updateCartItem_cachedCart_skipsCartQuery() throws Exception {
+        String token = userWithCart(2);
+        Long itemId = cartItemIds(token).get(0);
+
+        long cold = countEditStatements(token, false, updateQuantity(token, itemId, 2));
+        long cached = countEditStatements(token, true, updateQuantity(token, itemId, 3));
+
+        assertEquals(cold - 1, cached,
+                "An edit of a cached cart must answer from the view, not the cart query");
+    }
+
+    @Test
+    void deleteCartItem_cachedCart_skipsCartQuery() throws Exception {
+        String token = userWithCart(3);
+        List<Long> itemIds = cartItemIds(token);
+
+        long cold = countEditStatements(token, false, removeItem(token, itemIds.get(0)));
+        long cached = countEditStatements(token, true, removeItem(token, itemIds.get(1)));
+
+        assertEquals(cold - 1, cached,
+                "An edit of a cached cart must answer from the view, not the cart query");
+    }
+
+    /**
+     * Reads the cart first, so both runs find the same second-level cache state, and
+     * then drops the cart view unless the edit should find it cached.
+     */
+    private long countEditStatements(String token, boolean cached, RequestBuilder edit)
+            throws Exception {
+        mockMvc.perform(get("/cart").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+        if (!cached) {
+            Objects.requireNonNull(cacheManager.getCache(CacheConfig.CARTS)).clear();
+        }
+        statistics().clear();
+        mockMvc.perform(edit).andExpect(status().isOk());
+        return statistics().getPrepareStatementCount();
+    }
+
+    private RequestBuilder updateQuantity(String token, Long itemId, int quantity)
+            throws Exception {
+        return put("/cart/items/" + itemId)
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UpdateCartItemRequestDto(quantity)));
+    }
+
+    private RequestBuilder removeItem(String token, Long itemId) {
+        return delete("/cart/items/" + itemId).header(HttpHeaders.AUTHORIZATION, token);
+    }
+
+    private List<Long> cartItemIds(String token) throws Exception {
+        String response = mockMvc.perform(get("/cart").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(response, ShoppingCartResponseDto.class).cartItems()
+                .stream()
+                .map(CartItemResponseDto::getCartItemId)
+                .sorted()
+                .toList();
+    }
+
+    private String userWithCart(int items) throws Exception {
+        String email = uniqueEmail();
+        createUser(email, Role.RoleName.ROLE_USER);
+        String token = login(email);
+        for (int i = 0; i < items; i++) {
+            addToCart(token, createBook(10));
+        }
+        return token;
+    }
+}
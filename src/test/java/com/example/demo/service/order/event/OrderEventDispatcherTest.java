@@ -0,0 +1,141 @@
+package com.example.demo.service.order.event;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.example.demo.AbstractIntegrationTest;
+import com.example.demo.model.OrderEvent;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class OrderEventDispatcherTest extends AbstractIntegrationTest {
+    @MockBean
+    private OrderEventHandler handler;
+    @Autowired
+    private OrderEventDispatcher dispatcher;
+    @Value("${order.events.max-attempts}")
+    private int maxAttempts;
+
+    @Test
+    void dispatch_dueEvent_deliversOutsideTransaction() throws Exception {
+        Long id = insertEvent("PENDING", 0, LocalDateTime.now().minusMinutes(1), null);
+        AtomicBoolean inTransaction = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return null;
+        }).when(handler).handle(argThat(event -> id.equals(event.getId())));
+
+        dispatcher.dispatch();
+
+        verify(handler).handle(argThat(event -> id.equals(event.getId())));
+        assertFalse(inTransaction.get(), "Handlers must run outside the claim transaction");
+        Map<String, Object> event = findEvent(id);
+        assertEquals("DELIVERED", event.get("status"));
+        assertNotNull(event.get("delivered_at"));
+    }
+
+    @Test
+    void dispatch_handlerFails_schedulesRetry() throws Exception {
+        LocalDateTime due = LocalDateTime.now().minusMinutes(1);
+        Long id = insertEvent("PENDING", 0, due, null);
+        doThrow(new IllegalStateException("warehouse down"))
+                .when(handler).handle(argThat(event -> id.equals(event.getId())));
+
+        dispatcher.dispatch();
+
+        Map<String, Object> event = findEvent(id);
+        assertEquals("PENDING", event.get("status"));
+        assertEquals(1, ((Number) event.get("attempts")).intValue());
+        assertTrue(((LocalDateTime) event.get("next_attempt_at")).isAfter(LocalDateTime.now()));
+        assertTrue(((String) event.get("last_error")).contains("warehouse down"));
+    }
+
+    @Test
+    void dispatch_lastAttemptFails_marksFailed() throws Exception {
+        Long id = insertEvent("PENDING", maxAttempts - 1,
+                LocalDateTime.now().minusMinutes(1), null);
+        doThrow(new IllegalStateException("warehouse down"))
+                .when(handler).handle(argThat(event -> id.equals(event.getId())));
+
+        dispatcher.dispatch();
+
+        Map<String, Object> event = findEvent(id);
+        assertEquals("FAILED", event.get("status"));
+        assertEquals(maxAttempts, ((Number) event.get("attempts")).intValue());
+    }
+
+    @Test
+    void dispatch_claimedEvent_notDeliveredAgain() throws Exception {
+        Long id = insertEvent("PENDING", 0, LocalDateTime.now().plusMinutes(5), null);
+
+        dispatcher.dispatch();
+
+        verify(handler, never())
+                .handle(argThat(event -> id.equals(event.getId())));
+        assertEquals("PENDING", findEvent(id).get("status"));
+    }
+
+    @Test
+    void purge_deliveredPastRetention_deletesOnlyThose() {
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(30);
+        Long expired = insertEvent("DELIVERED", 0, longAgo, longAgo);
+        Long recent = insertEvent("DELIVERED", 0, longAgo, LocalDateTime.now().minusHours(1));
+        Long failed = insertEvent("FAILED", maxAttempts, longAgo, null);
+
+        dispatcher.purge();
+
+        assertAll(() -> assertEquals(0, countEvents(expired)),
+                () -> assertEquals(1, countEvents(recent)),
+                () -> assertEquals(1, countEvents(failed)));
+    }
+
+    private Long insertEvent(String status, int attempts, LocalDateTime nextAttemptAt,
+                             LocalDateTime deliveredAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO order_events (order_id, type, payload, status, attempts, "
+                            + "created_at, next_attempt_at, delivered_at) "
+                            + "VALUES (1, ?, '{}', ?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, OrderEvent.Type.ORDER_PLACED.name());
+            statement.setString(2, status);
+            statement.setInt(3, attempts);
+            statement.setTimestamp(4, Timestamp.valueOf(nextAttemptAt));
+            statement.setTimestamp(5, Timestamp.valueOf(nextAttemptAt));
+            statement.setTimestamp(6, deliveredAt == null ? null
+                    : Timestamp.valueOf(deliveredAt));
+            return statement;
+        }, keyHolder);
+        return Objects.requireNonNull(keyHolder.getKey()).longValue();
+    }
+
+    private Map<String, Object> findEvent(Long id) {
+        return jdbcTemplate.queryForMap("SELECT * FROM order_events WHERE id = ?", id);
+    }
+
+    private int countEvents(Long id) {
+        return Objects.requireNonNull(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_events WHERE id = ?", Integer.class, id));
+    }
+}
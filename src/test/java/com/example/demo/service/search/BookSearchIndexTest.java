@@ -0,0 +1,111 @@
+package com.example.demo.service.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.book.BookSearchView;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookSearchIndexTest {
+    private BookRepository bookRepository;
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.findSearchViewsAfter(eq(0L), any())).thenReturn(List.of(
+                view(1L, "Nineteen Eighty-Four", "George Orwell", "978-0-452-28423-4"),
+                view(2L, "Animal Farm", "George Orwell", "978-0-452-28424-1"),
+                view(3L, "Brave New World", "Aldous Huxley", "978-0-06-085052-4")));
+        index = new BookSearchIndex(bookRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void search_allTermsRequired_returnsMatchingBooks() {
+        assertEquals(List.of(1L, 2L), index.search("orwell", 0, 10).ids());
+        assertEquals(List.of(2L), index.search("orwell farm", 0, 10).ids());
+        assertEquals(List.of(), index.search("orwell world", 0, 10).ids());
+    }
+
+    @Test
+    void search_isbnWithoutSeparators_findsBook() {
+        assertEquals(List.of(3L), index.search("9780060850524", 0, 10).ids());
+    }
+
+    @Test
+    void search_page_skipsOffsetAndCountsAll() {
+        BookSearchIndex.SearchHits hits = index.search("george", 1, 10);
+
+        assertEquals(List.of(2L), hits.ids());
+        assertEquals(2, hits.total());
+    }
+
+    @Test
+    void index_bookFromSegment_replacesItsTerms() {
+        index.index(2L, "Homage to Catalonia", "George Orwell", "978-0-15-642117-8", null);
+
+        assertEquals(List.of(), index.search("farm", 0, 10).ids());
+        assertEquals(List.of(2L), index.search("catalonia", 0, 10).ids());
+        assertEquals(List.of(1L, 2L), index.search("orwell", 0, 10).ids());
+    }
+
+    @Test
+    void remove_bookFromSegment_isNotFound() {
+        index.remove(1L);
+
+        assertEquals(List.of(2L), index.search("orwell", 0, 10).ids());
+    }
+
+    @Test
+    void rebuild_bookUpdatedWhileReading_keepsNewerTerms() {
+        when(bookRepository.findSearchViewsAfter(eq(0L), any())).thenAnswer(invocation -> {
+            index.index(1L, "Down and Out in Paris and London", "George Orwell",
+                    "978-0-15-626224-5", null);
+            return List.of(
+                    view(1L, "Nineteen Eighty-Four", "George Orwell", "978-0-452-28423-4"),
+                    view(2L, "Animal Farm", "George Orwell", "978-0-452-28424-1"));
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(), index.search("eighty", 0, 10).ids());
+        assertEquals(List.of(1L), index.search("paris", 0, 10).ids());
+        assertEquals(List.of(), index.search("huxley", 0, 10).ids());
+    }
+
+    private static BookSearchView view(Long id, String title, String author, String isbn) {
+        return new BookSearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getAuthor() {
+                return author;
+            }
+
+            @Override
+            public String getIsbn() {
+                return isbn;
+            }
+
+            @Override
+            public String getDescription() {
+                return null;
+            }
+        };
+    }
+}